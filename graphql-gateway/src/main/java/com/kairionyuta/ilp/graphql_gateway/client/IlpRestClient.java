@@ -34,6 +34,24 @@ public class IlpRestClient {
         return restTemplate.getForObject(url, DroneDetailsDTO.class);
     }
 
+    // One request for the whole list; unknown ids are left out of the response
+    public List<DroneDetailsDTO> droneDetails(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String url = baseUrl + "/droneDetails";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<List<Integer>> request =
+                new HttpEntity<>(ids, headers);
+
+        // An empty response body comes back as null
+        DroneDetailsDTO[] details = restTemplate.postForObject(url, request, DroneDetailsDTO[].class);
+        return details == null ? List.of() : Arrays.asList(details);
+    }
+
     public List<Integer> queryDrones(List<QueryFilterInputDTO> filters) {
         String url = baseUrl + "/query";
         
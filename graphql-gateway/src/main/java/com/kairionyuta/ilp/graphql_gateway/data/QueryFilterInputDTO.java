@@ -1,9 +1,12 @@
 package com.kairionyuta.ilp.graphql_gateway.data;
 
+import java.util.List;
+
 public class QueryFilterInputDTO {
     private String attribute;
     private String operator;
     private String value;
+    private List<QueryFilterInputDTO> anyOf;
 
     public QueryFilterInputDTO() {
     }
@@ -31,4 +34,12 @@ public class QueryFilterInputDTO {
     public void setValue(String value) {
         this.value = value;
     }
+
+    public List<QueryFilterInputDTO> getAnyOf() {
+        return anyOf;
+    }
+
+    public void setAnyOf(List<QueryFilterInputDTO> anyOf) {
+        this.anyOf = anyOf;
+    }
 }
@@ -30,18 +30,8 @@ public class DroneQueryResolver {
         //get list of IDs from REST Service
         List<Integer> ids = ilpRestClient.dronesWithCooling(state);
 
-        // expand each ID into a full DroneDTO
-        List<DroneDTO> drones = new ArrayList<>();
-
-        for (Integer id : ids) {
-            // Copies capability from droneDetailsDTO to droneDTO
-            DroneDTO out = toDroneDTO(ilpRestClient.droneDetails(id));
-            if (out != null) {
-                drones.add(out);
-            }
-        }
-
-        return drones;
+        // expand the IDs into full DroneDTOs with one batch request
+        return toDroneDTOs(ilpRestClient.droneDetails(ids));
     }
 
     @QueryMapping
@@ -56,17 +46,8 @@ public class DroneQueryResolver {
         // Gets list of IDs that match query from REST service
         List<Integer> ids = ilpRestClient.queryDrones(filters);
 
-        // Expand each id into a full DroneDTO (same as cooling slice)
-        List<DroneDTO> drones = new ArrayList<>();
-
-        for (Integer id : ids) {
-            DroneDTO out = toDroneDTO(ilpRestClient.droneDetails(id));
-            if (out != null) {
-                drones.add(out);
-            }
-        }
-
-        return drones;
+        // Expand the ids into full DroneDTOs (same as cooling slice)
+        return toDroneDTOs(ilpRestClient.droneDetails(ids));
     }
 
     @QueryMapping
@@ -75,17 +56,8 @@ public class DroneQueryResolver {
         // Get list of available drone IDs from REST service
         List<Integer> ids = ilpRestClient.availableDrones(dispatches);
 
-        // Expand each id into a full DroneDTO (same as cooling slice)
-        List<DroneDTO> drones = new ArrayList<>();
-
-        for (Integer id : ids) {
-            DroneDTO out = toDroneDTO(ilpRestClient.droneDetails(id));
-            if (out != null) {
-                drones.add(out);
-            }
-        }
-
-        return drones;
+        // Expand the ids into full DroneDTOs (same as cooling slice)
+        return toDroneDTOs(ilpRestClient.droneDetails(ids));
     }
 
     @MutationMapping
@@ -96,6 +68,21 @@ public class DroneQueryResolver {
         return ilpRestClient.calculateDeliveryPath(dispatches);
     }
 
+    // Helper to convert a batch of DroneDetailsDTO, dropping any without capability
+    private List<DroneDTO> toDroneDTOs(List<DroneDetailsDTO> details) {
+        List<DroneDTO> drones = new ArrayList<>();
+
+        for (DroneDetailsDTO d : details) {
+            // Copies capability from droneDetailsDTO to droneDTO
+            DroneDTO out = toDroneDTO(d);
+            if (out != null) {
+                drones.add(out);
+            }
+        }
+
+        return drones;
+    }
+
     // Helper to convert DroneDetailsDTO to DroneDTO
     private DroneDTO toDroneDTO(DroneDetailsDTO details) {
         if (details == null || details.capability == null) return null;
@@ -0,0 +1,66 @@
+package com.ilp.restapi.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Consecutive-failure circuit breaker for the ILP upstream.
+ *
+ * After {@code failureThreshold} failures in a row the circuit opens and calls fail
+ * immediately for {@code openDuration}. After that up to {@code trialCalls} trial calls
+ * are let through (half-open), enough for one refresh of every endpoint; the first
+ * success closes the circuit again, a failure re-opens it.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int trialCalls;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private int trialsLeft;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, int trialCalls, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.trialCalls = Math.max(1, trialCalls);
+        this.clock = clock;
+    }
+
+    /** Returns true if a call may go to the upstream right now. */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            trialsLeft = trialCalls;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsLeft == 0) return false;
+            trialsLeft--;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
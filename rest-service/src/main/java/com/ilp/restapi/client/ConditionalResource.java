@@ -0,0 +1,118 @@
+package com.ilp.restapi.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * One ILP reference endpoint fetched with conditional GETs.
+ *
+ * Remembers the ETag / Last-Modified validators and a hash of the last body. A 304,
+ * or a 200 whose body hashes to the same value, returns the previously parsed list
+ * instance unchanged, so callers can detect "no change" by identity and skip work.
+ */
+class ConditionalResource<T> {
+
+    private final String url;
+    private final URI uri;
+    private final JsonFactory json;
+    private final PayloadReader<T> reader;
+    private final SingleFlight<List<T>> flight = new SingleFlight<>();
+
+    private String etag;
+    private String lastModified;
+    private byte[] contentHash;
+    private List<T> value = List.of();
+
+    ConditionalResource(String url, JsonFactory json, PayloadReader<T> reader) {
+        this.url = url;
+        // Parsed once, so requests skip URI template expansion
+        this.uri = URI.create(url);
+        this.json = json;
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the (possibly unchanged) parsed list. Concurrent callers share a single
+     * in-flight request and the same parsed result. Fails fast while the breaker is open.
+     */
+    List<T> fetch(RestTemplate rest, CircuitBreaker breaker) {
+        return flight.run(() -> {
+            if (!breaker.allowRequest()) {
+                throw new IlpUnavailableException("Circuit open, skipping " + url);
+            }
+            try {
+                List<T> result = fetchOnce(rest);
+                breaker.recordSuccess();
+                return result;
+            } catch (RestClientException | IOException e) {
+                breaker.recordFailure();
+                throw new IlpUnavailableException("Failed to fetch " + url, e);
+            }
+        });
+    }
+
+    SingleFlight<List<T>> flight() {
+        return flight;
+    }
+
+    // Synchronized so validators and value are always updated together
+    private synchronized List<T> fetchOnce(RestTemplate rest) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        if (lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+
+        ResponseEntity<byte[]> response =
+                rest.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return value;
+        }
+
+        etag = response.getHeaders().getETag();
+        lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            contentHash = null;
+            value = List.of();
+            return value;
+        }
+
+        // Upstream may not send validators at all, so fall back to comparing content
+        byte[] hash = sha256(body);
+        if (contentHash != null && Arrays.equals(hash, contentHash)) {
+            return value;
+        }
+
+        List<T> parsed = reader.read(json.createParser(body));
+        contentHash = hash;
+        value = parsed;
+        return value;
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ilp.restapi.client;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+/**
+ * {@link IlpClient} that serves recorded snapshots from a local directory instead of the
+ * live service ({@code ilp.client.mode=file}). Used for repeatable load tests and for
+ * starting nodes without touching the upstream.
+ *
+ * The directory holds one file per endpoint, named after it:
+ * {@code drones.json}, {@code drones-for-service-points.json}, {@code service-points.json}
+ * and {@code restricted-areas.json}, each containing the raw JSON response. Files are
+ * memory-mapped and parsed with the same readers as the HTTP client.
+ *
+ * Changes are picked up in two ways: every fetch re-checks the file's modification time
+ * and size, and a directory watcher publishes a {@link ReferenceDataChangedEvent} so the
+ * snapshot is reloaded right away rather than when its TTL runs out.
+ */
+@Component
+@ConditionalOnProperty(name = "ilp.client.mode", havingValue = "file")
+public class FileIlpClient implements IlpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(FileIlpClient.class);
+
+    private final Path directory;
+    private final boolean watch;
+    private final ApplicationEventPublisher events;
+
+    private final RecordedFile<DroneDTO> drones;
+    private final RecordedFile<ServicePointSchedule> availability;
+    private final RecordedFile<ServicePointDTO> servicePoints;
+    private final RecordedFile<RestrictedAreaDTO> restrictedAreas;
+    private final Set<Path> fileNames;
+
+    private WatchService watcher;
+
+    public FileIlpClient(@Value("${ilp.client.file.directory}") String directory,
+                         @Value("${ilp.client.file.watch:true}") boolean watch,
+                         ApplicationEventPublisher events) {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.watch = watch;
+        this.events = events;
+
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        JsonFactory json = mapper.getFactory();
+        this.drones = new RecordedFile<>(this.directory.resolve("drones.json"), json,
+                IlpJsonReader::readDrones);
+        this.availability = new RecordedFile<>(this.directory.resolve("drones-for-service-points.json"), json,
+                IlpJsonReader::readSchedules);
+        this.servicePoints = new RecordedFile<>(this.directory.resolve("service-points.json"), json,
+                PayloadReader.dataBound(mapper, ServicePointDTO[].class));
+        this.restrictedAreas = new RecordedFile<>(this.directory.resolve("restricted-areas.json"), json,
+                PayloadReader.dataBound(mapper, RestrictedAreaDTO[].class));
+        this.fileNames = Set.of(
+                drones.path().getFileName(),
+                availability.path().getFileName(),
+                servicePoints.path().getFileName(),
+                restrictedAreas.path().getFileName());
+    }
+
+    @PostConstruct
+    void startWatching() throws IOException {
+        if (!watch) return;
+        watcher = FileSystems.getDefault().newWatchService();
+        directory.register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread.ofPlatform().daemon().name("ilp-file-watcher").start(this::watchLoop);
+        log.info("Serving ILP reference data from {}", directory);
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                Path changed = null;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path name && fileNames.contains(name)) {
+                        changed = directory.resolve(name);
+                    }
+                }
+                key.reset();
+                if (changed != null) {
+                    events.publishEvent(new ReferenceDataChangedEvent(changed));
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // shutting down
+        }
+    }
+
+    @Override
+    public List<DroneDTO> fetchDrones() {
+        return drones.read();
+    }
+
+    @Override
+    public List<ServicePointSchedule> fetchAvailability() {
+        return availability.read();
+    }
+
+    @Override
+    public List<ServicePointDTO> fetchServicePoints() {
+        return servicePoints.read();
+    }
+
+    @Override
+    public List<RestrictedAreaDTO> fetchRestrictedAreas() {
+        return restrictedAreas.read();
+    }
+}
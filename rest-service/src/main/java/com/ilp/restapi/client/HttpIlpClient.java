@@ -0,0 +1,123 @@
+package com.ilp.restapi.client;
+
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+
+/**
+ * {@link IlpClient} backed by the live ILP REST service. This is the default mode
+ * ({@code ilp.client.mode=http}).
+ */
+@Component
+@ConditionalOnProperty(name = "ilp.client.mode", havingValue = "http", matchIfMissing = true)
+public class HttpIlpClient implements IlpClient {
+
+    private static final int REFERENCE_ENDPOINTS = 4;
+
+    private final String baseUrl;
+    private final RestTemplate rest;
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final CircuitBreaker breaker;
+
+    // Each reference endpoint keeps its own validators and last parsed value
+    private final ConditionalResource<DroneDTO> drones;
+    private final ConditionalResource<ServicePointSchedule> availability;
+    private final ConditionalResource<ServicePointDTO> servicePoints;
+    private final ConditionalResource<RestrictedAreaDTO> restrictedAreas;
+
+    public HttpIlpClient(String ilpEndpoint,
+                         CloseableHttpClient httpClient,
+                         RestTemplateBuilder builder,
+                         MeterRegistry meterRegistry,
+                         @Value("${ilp.client.breaker.failure-threshold:3}") int failureThreshold,
+                         @Value("${ilp.client.breaker.open-duration:PT30S}") Duration openDuration) {
+    this.baseUrl = ilpEndpoint;
+    // A half-open trial is one refresh: a call to each of the four endpoints
+    this.breaker = new CircuitBreaker(failureThreshold, openDuration, REFERENCE_ENDPOINTS, Clock.systemUTC());
+
+    // Pooling, keep-alive and timeouts are configured on the shared client (IlpHttpClientConfig)
+    HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+
+    this.rest = builder
+            .requestFactory(() -> requestFactory)
+            .additionalMessageConverters(new MappingJackson2HttpMessageConverter())
+            .build();
+
+    // The two large payloads are streamed into compact form, the small ones data-bound
+    JsonFactory json = mapper.getFactory();
+    this.drones = new ConditionalResource<>(baseUrl + "/drones", json,
+            IlpJsonReader::readDrones);
+    this.availability = new ConditionalResource<>(baseUrl + "/drones-for-service-points", json,
+            IlpJsonReader::readSchedules);
+    this.servicePoints = new ConditionalResource<>(baseUrl + "/service-points", json,
+            PayloadReader.dataBound(mapper, ServicePointDTO[].class));
+    this.restrictedAreas = new ConditionalResource<>(baseUrl + "/restricted-areas", json,
+            PayloadReader.dataBound(mapper, RestrictedAreaDTO[].class));
+
+    registerFlightMetrics(meterRegistry, "drones", drones.flight());
+    registerFlightMetrics(meterRegistry, "drones-for-service-points", availability.flight());
+    registerFlightMetrics(meterRegistry, "service-points", servicePoints.flight());
+    registerFlightMetrics(meterRegistry, "restricted-areas", restrictedAreas.flight());
+    Gauge.builder("ilp.client.breaker.open", breaker, b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+            .description("1 while the ILP circuit breaker is open or half-open")
+            .register(meterRegistry);
+    }
+
+    private static void registerFlightMetrics(MeterRegistry registry, String endpoint, SingleFlight<?> flight) {
+        FunctionCounter.builder("ilp.client.fetch.upstream", flight, SingleFlight::executedCount)
+                .description("Fetches that were sent to the ILP service")
+                .tag("endpoint", endpoint)
+                .register(registry);
+        FunctionCounter.builder("ilp.client.fetch.coalesced", flight, SingleFlight::coalescedCount)
+                .description("Fetches that shared an already in-flight request")
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
+
+
+    @Override
+    public List<DroneDTO> fetchDrones() {
+        return drones.fetch(rest, breaker);
+    }
+
+    @Override
+    public List<ServicePointSchedule> fetchAvailability() {
+        return availability.fetch(rest, breaker);
+    }
+
+    @Override
+    public List<ServicePointDTO> fetchServicePoints() {
+        return servicePoints.fetch(rest, breaker);
+    }
+
+    @Override
+    public List<RestrictedAreaDTO> fetchRestrictedAreas() {
+        return restrictedAreas.fetch(rest, breaker);
+    }
+
+
+}
+
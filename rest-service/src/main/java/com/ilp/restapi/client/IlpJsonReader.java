@@ -0,0 +1,235 @@
+package com.ilp.restapi.client;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+
+/**
+ * Streaming readers for the two large ILP payloads.
+ *
+ * Both walk the token stream once instead of going through data binding: drones are
+ * built directly, and availability goes straight into packed {@link WeeklyWindows}
+ * without creating a slot object or {@code LocalTime} per entry. Unknown fields are
+ * skipped and null array elements dropped, like the object mapper did before.
+ */
+final class IlpJsonReader {
+
+    private IlpJsonReader() {
+    }
+
+    static List<DroneDTO> readDrones(JsonParser parser) throws IOException {
+        try (JsonParser p = parser) {
+            if (!startArray(p)) return List.of();
+
+            List<DroneDTO> drones = new ArrayList<>();
+            while (nextElement(p)) {
+                drones.add(readDrone(p));
+            }
+            return Collections.unmodifiableList(drones);
+        }
+    }
+
+    static List<ServicePointSchedule> readSchedules(JsonParser parser) throws IOException {
+        try (JsonParser p = parser) {
+            if (!startArray(p)) return List.of();
+
+            List<ServicePointSchedule> schedules = new ArrayList<>();
+            WindowBuffer buffer = new WindowBuffer();
+            while (nextElement(p)) {
+                ServicePointSchedule schedule = readSchedule(p, buffer);
+                if (schedule != null) {
+                    schedules.add(schedule);
+                }
+            }
+            return Collections.unmodifiableList(schedules);
+        }
+    }
+
+    // -------------------- DRONES --------------------
+
+    private static DroneDTO readDrone(JsonParser p) throws IOException {
+        DroneDTO drone = new DroneDTO();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "name" -> drone.setName(p.getValueAsString());
+                case "id" -> drone.setId(p.getValueAsInt());
+                case "capability" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        drone.setCapability(readCapability(p));
+                    }
+                }
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return drone;
+    }
+
+    private static CapabilityDTO readCapability(JsonParser p) throws IOException {
+        CapabilityDTO cap = new CapabilityDTO();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "cooling" -> cap.setCooling(p.getValueAsBoolean());
+                case "heating" -> cap.setHeating(p.getValueAsBoolean());
+                case "capacity" -> cap.setCapacity(nullableDouble(p, value));
+                case "maxMoves" -> cap.setMaxMoves(p.getValueAsInt());
+                case "costPerMove" -> cap.setCostPerMove(nullableDouble(p, value));
+                case "costInitial" -> cap.setCostInitial(nullableDouble(p, value));
+                case "costFinal" -> cap.setCostFinal(nullableDouble(p, value));
+                default -> { }
+            }
+            p.skipChildren();
+        }
+        return cap;
+    }
+
+    // -------------------- AVAILABILITY --------------------
+
+    private static ServicePointSchedule readSchedule(JsonParser p, WindowBuffer buffer) throws IOException {
+        int servicePointId = 0;
+        List<int[]> perDrone = null;
+        int[] ids = new int[8];
+        int count = 0;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("servicePointId".equals(field)) {
+                servicePointId = p.getValueAsInt();
+            } else if ("drones".equals(field) && value == JsonToken.START_ARRAY) {
+                perDrone = new ArrayList<>();
+                count = 0;
+                while (nextElement(p)) {
+                    String rawId = null;
+                    buffer.clear();
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String droneField = p.currentName();
+                        JsonToken droneValue = p.nextToken();
+                        if ("id".equals(droneField)) {
+                            rawId = p.getValueAsString();
+                        } else if ("availability".equals(droneField) && droneValue == JsonToken.START_ARRAY) {
+                            while (nextElement(p)) {
+                                readSlot(p, buffer);
+                            }
+                        }
+                        p.skipChildren();
+                    }
+
+                    Integer id = parseDroneId(rawId);
+                    if (id == null) continue;
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = id;
+                    perDrone.add(buffer.toArray());
+                }
+            }
+            p.skipChildren();
+        }
+
+        // A service point without a drones list contributes nothing
+        if (perDrone == null) return null;
+        return new ServicePointSchedule(servicePointId, Arrays.copyOf(ids, count), perDrone.toArray(new int[0][]));
+    }
+
+    private static void readSlot(JsonParser p, WindowBuffer buffer) throws IOException {
+        DayOfWeek day = null;
+        LocalTime from = null;
+        LocalTime until = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            String text = p.getValueAsString();
+            try {
+                switch (field) {
+                    case "dayOfWeek" -> day = text == null ? null : DayOfWeek.valueOf(text);
+                    case "from" -> from = text == null ? null : LocalTime.parse(text);
+                    case "until" -> until = text == null ? null : LocalTime.parse(text);
+                    default -> { }
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new JsonParseException(p, "Invalid availability " + field + ": " + text, e);
+            }
+            p.skipChildren();
+        }
+
+        // Incomplete or inverted slots can never contain a time, so they are not stored
+        if (day == null || from == null || until == null || from.isAfter(until)) return;
+        buffer.add(WeeklyWindows.secondOfWeek(day, from), WeeklyWindows.secondOfWeek(day, until));
+    }
+
+    // -------------------- HELPERS --------------------
+
+    /** Moves to the opening '[' of the document; false for an empty or null document. */
+    private static boolean startArray(JsonParser p) throws IOException {
+        JsonToken t = p.nextToken();
+        if (t == null || t == JsonToken.VALUE_NULL) return false;
+        if (t != JsonToken.START_ARRAY) {
+            throw new JsonParseException(p, "Expected a JSON array but got " + t);
+        }
+        return true;
+    }
+
+    /** Advances to the next object in the current array, skipping nulls. */
+    private static boolean nextElement(JsonParser p) throws IOException {
+        while (true) {
+            JsonToken t = p.nextToken();
+            if (t == JsonToken.END_ARRAY || t == null) return false;
+            if (t == JsonToken.START_OBJECT) return true;
+            if (t != JsonToken.VALUE_NULL) {
+                throw new JsonParseException(p, "Expected an object but got " + t);
+            }
+        }
+    }
+
+    private static Double nullableDouble(JsonParser p, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : p.getValueAsDouble();
+    }
+
+    private static Integer parseDroneId(String raw) {
+        if (raw == null) return null;
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /** Reusable scratch space for one drone's window pairs. */
+    private static final class WindowBuffer {
+        private int[] values = new int[32];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int start, int end) {
+            if (size + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = start;
+            values[size++] = end;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ilp.restapi.client;
+
+/**
+ * Thrown when reference data could not be obtained from the ILP service, either because
+ * the call failed or because the circuit breaker is open.
+ */
+public class IlpUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IlpUnavailableException(String message) {
+        super(message);
+    }
+
+    public IlpUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ilp.restapi.client;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Connection pool for the ILP upstream that reports how it is doing.
+ *
+ * Wraps a {@link PoolingHttpClientConnectionManager} and times every lease, so pool
+ * starvation shows up as lease wait time ({@code ilp.client.pool.lease}). Pool size,
+ * leased, available and pending connections are published through the standard
+ * Micrometer binder ({@code httpcomponents.httpclient.pool.*}, tagged
+ * {@code httpclient=ilp}).
+ *
+ * Idle and expired connections are evicted in the background. The HTTP client builder
+ * only does that for managers that expose pool control, so it is done here instead.
+ */
+public class InstrumentedConnectionManager implements HttpClientConnectionManager {
+
+    private final PoolingHttpClientConnectionManager pool;
+    private final Timer leaseTimer;
+    private final IdleConnectionEvictor evictor;
+
+    public InstrumentedConnectionManager(PoolingHttpClientConnectionManager pool,
+                                         TimeValue maxIdle,
+                                         MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.evictor = new IdleConnectionEvictor(pool, maxIdle, maxIdle);
+        this.evictor.start();
+        this.leaseTimer = Timer.builder("ilp.client.pool.lease")
+                .description("Time spent waiting for a pooled connection to the ILP service")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, "ilp").bindTo(meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest request = pool.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.get(timeout);
+                } finally {
+                    leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+        pool.release(endpoint, newState, validDuration);
+    }
+
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+        pool.connect(endpoint, timeout, context);
+    }
+
+    @Override
+    public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+        pool.upgrade(endpoint, context);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        evictor.shutdown();
+        pool.close(closeMode);
+    }
+
+    @Override
+    public void close() throws IOException {
+        evictor.shutdown();
+        pool.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.ilp.restapi.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads one reference dataset from a JSON parser into an unmodifiable list.
+ * Shared by the HTTP and file-backed clients so both produce identical data.
+ * Implementations own the parser and close it.
+ */
+@FunctionalInterface
+interface PayloadReader<T> {
+
+    List<T> read(JsonParser parser) throws IOException;
+
+    /** Plain data binding, for the small payloads. */
+    static <T> PayloadReader<T> dataBound(ObjectMapper mapper, Class<T[]> arrayType) {
+        return parser -> {
+            try (parser) {
+                T[] arr = mapper.readValue(parser, arrayType);
+                return arr == null ? List.of() : Collections.unmodifiableList(Arrays.asList(arr));
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.ilp.restapi.client;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * One recorded ILP dataset on local disk, the file-backed counterpart of
+ * {@link ConditionalResource}.
+ *
+ * The file is memory-mapped and parsed straight from the mapping. Its modification
+ * time and size act as validators: while they are unchanged the previously parsed list
+ * instance is returned, so an unchanged file never produces a new snapshot version.
+ */
+class RecordedFile<T> {
+
+    private final Path path;
+    private final JsonFactory json;
+    private final PayloadReader<T> reader;
+
+    private FileTime lastModified;
+    private long size = -1;
+    private List<T> value = List.of();
+
+    RecordedFile(Path path, JsonFactory json, PayloadReader<T> reader) {
+        this.path = path;
+        this.json = json;
+        this.reader = reader;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    synchronized List<T> read() {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            if (attrs.lastModifiedTime().equals(lastModified) && attrs.size() == size) {
+                return value;
+            }
+
+            List<T> parsed;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long length = channel.size();
+                if (length == 0) {
+                    parsed = List.of();
+                } else {
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                    parsed = reader.read(json.createParser(new ByteBufferBackedInputStream(mapped)));
+                }
+            }
+
+            // Validators only move on after a successful parse, so a half-written file is retried
+            lastModified = attrs.lastModifiedTime();
+            size = attrs.size();
+            value = parsed;
+            return value;
+        } catch (IOException e) {
+            throw new IlpUnavailableException("Failed to read " + path, e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.ilp.restapi.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+/**
+ * In-process cache of the ILP reference data.
+ *
+ * Request threads only ever read the current {@link ReferenceSnapshot} from memory.
+ * A scheduled refresher replaces it once it is older than the configured TTL, so the
+ * network is only touched by the refresher (and by the very first read if no snapshot
+ * has been loaded yet).
+ *
+ * Snapshots are all-or-nothing: if any dataset cannot be fetched, the last good
+ * snapshot keeps being served (stale-while-revalidate) and its age grows. In
+ * particular, restricted areas are never replaced by an empty list on failure.
+ *
+ * Every good snapshot is also written to the {@link SnapshotStore}, and on startup the
+ * persisted one is served until the upstream has been reached.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final IlpClient ilpClient;
+    private final SnapshotStore store;
+    private final Duration ttl;
+    private final Duration fetchDeadline;
+
+    // The four fetches are pure network waits, so each gets its own virtual thread
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicReference<ReferenceSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final Object loadLock = new Object();
+
+    // Set when serving a snapshot restored from disk that has not been checked against the upstream yet
+    private final AtomicBoolean restoredUnverified = new AtomicBoolean();
+
+    public ReferenceDataCache(IlpClient ilpClient,
+                              SnapshotStore store,
+                              @Value("${ilp.snapshot.ttl:PT5M}") Duration ttl,
+                              @Value("${ilp.snapshot.fetch-deadline:PT15S}") Duration fetchDeadline) {
+        this.ilpClient = ilpClient;
+        this.store = store;
+        this.ttl = ttl;
+        this.fetchDeadline = fetchDeadline;
+    }
+
+    /**
+     * Warm start: serve the last persisted snapshot straight away. The refresher
+     * revalidates it against the upstream on its first run, whatever its age.
+     */
+    @PostConstruct
+    void restorePersisted() {
+        synchronized (loadLock) {
+            if (current.get() != null) return;
+            ReferenceSnapshot restored = store.load(versionCounter.get() + 1);
+            if (restored == null) return;
+            versionCounter.incrementAndGet();
+            restoredUnverified.set(true);
+            current.set(restored);
+            log.info("Restored reference snapshot from disk ({} drones, age {})",
+                    restored.getDrones().size(), restored.age(Instant.now()));
+        }
+    }
+
+    /**
+     * Returns the current snapshot. Only blocks if nothing has been loaded yet,
+     * in which case concurrent callers wait on a single load.
+     */
+    public ReferenceSnapshot snapshot() {
+        ReferenceSnapshot snap = current.get();
+        if (snap != null) {
+            return snap;
+        }
+        synchronized (loadLock) {
+            snap = current.get();
+            if (snap != null) {
+                return snap;
+            }
+            try {
+                return refresh();
+            } catch (IlpUnavailableException e) {
+                // Nothing loaded yet and the upstream is down: serve "no data" without caching it
+                log.warn("No reference data available: {}", e.getMessage());
+                return ReferenceSnapshot.unavailable();
+            }
+        }
+    }
+
+    /** The current snapshot without ever blocking, or null if nothing has been loaded. */
+    public ReferenceSnapshot peek() {
+        return current.get();
+    }
+
+    /** Version of the current snapshot, or 0 if nothing has been loaded yet. */
+    public long currentVersion() {
+        ReferenceSnapshot snap = current.get();
+        return snap == null ? 0L : snap.getVersion();
+    }
+
+    /**
+     * Background refresher: reloads the snapshot once it is older than the TTL, or right
+     * away if it was restored from disk and not yet revalidated.
+     */
+    @Scheduled(initialDelayString = "${ilp.snapshot.initial-delay:PT0S}",
+               fixedDelayString = "${ilp.snapshot.refresh-interval:PT30S}")
+    public void refreshIfStale() {
+        ReferenceSnapshot snap = current.get();
+        if (snap == null || restoredUnverified.get() || snap.age(Instant.now()).compareTo(ttl) >= 0) {
+            synchronized (loadLock) {
+                try {
+                    refresh();
+                } catch (IlpUnavailableException e) {
+                    log.warn("Reference data refresh failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Reloads immediately when a recorded dataset file changes (file-backed mode only). */
+    @EventListener
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        synchronized (loadLock) {
+            try {
+                refresh();
+                log.info("Reloaded reference data after change to {}", event.getFile());
+            } catch (IlpUnavailableException e) {
+                log.warn("Reload after change to {} failed: {}", event.getFile(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fetches all four datasets concurrently under one overall deadline, so a cold load
+     * costs the slowest single fetch rather than the sum of all four. A new version is
+     * only published if at least one dataset changed; otherwise the current snapshot is
+     * just marked as revalidated. If anything fails, the previous snapshot is returned
+     * unchanged, or {@link IlpUnavailableException} is thrown if there is none.
+     */
+    ReferenceSnapshot refresh() {
+        CompletableFuture<List<DroneDTO>> drones =
+                CompletableFuture.supplyAsync(ilpClient::fetchDrones, fetchExecutor);
+        CompletableFuture<List<ServicePointSchedule>> availability =
+                CompletableFuture.supplyAsync(ilpClient::fetchAvailability, fetchExecutor);
+        CompletableFuture<List<ServicePointDTO>> servicePoints =
+                CompletableFuture.supplyAsync(ilpClient::fetchServicePoints, fetchExecutor);
+        CompletableFuture<List<RestrictedAreaDTO>> restrictedAreas =
+                CompletableFuture.supplyAsync(ilpClient::fetchRestrictedAreas, fetchExecutor);
+
+        ReferenceSnapshot previous = current.get();
+        try {
+            CompletableFuture.allOf(drones, availability, servicePoints, restrictedAreas)
+                    .get(fetchDeadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelAll(drones, availability, servicePoints, restrictedAreas);
+            return keepPrevious(previous, new IlpUnavailableException("Reference fetch exceeded " + fetchDeadline, e));
+        } catch (ExecutionException e) {
+            cancelAll(drones, availability, servicePoints, restrictedAreas);
+            return keepPrevious(previous, e.getCause() instanceof IlpUnavailableException iue
+                    ? iue
+                    : new IlpUnavailableException("Reference fetch failed", e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(drones, availability, servicePoints, restrictedAreas);
+            return keepPrevious(previous, new IlpUnavailableException("Interrupted while fetching reference data", e));
+        }
+
+        // A restored snapshot holds other list instances than the fetch returns, so it is
+        // compared by value; if the upstream still agrees it keeps its version and file
+        boolean confirmedRestored = restoredUnverified.get() && previous != null
+                && SnapshotStore.sameData(previous,
+                        drones.join(), availability.join(), servicePoints.join(), restrictedAreas.join());
+        ReferenceSnapshot next = confirmedRestored
+                ? previous.revalidatedAt(Instant.now())
+                : publish(previous, drones.join(), availability.join(), servicePoints.join(), restrictedAreas.join());
+        current.set(next);
+        restoredUnverified.set(false);
+        if (!confirmedRestored) {
+            store.save(next);
+        }
+        return next;
+    }
+
+    // Never publish a partial snapshot: keep serving the last good one, however old
+    private static ReferenceSnapshot keepPrevious(ReferenceSnapshot previous, IlpUnavailableException cause) {
+        if (previous == null) {
+            throw cause;
+        }
+        return previous;
+    }
+
+    private ReferenceSnapshot publish(ReferenceSnapshot previous,
+                                      List<DroneDTO> drones,
+                                      List<ServicePointSchedule> availability,
+                                      List<ServicePointDTO> servicePoints,
+                                      List<RestrictedAreaDTO> restrictedAreas) {
+        if (previous != null && previous.sameDataAs(drones, availability, servicePoints, restrictedAreas)) {
+            return previous.revalidatedAt(Instant.now());
+        }
+        return new ReferenceSnapshot(versionCounter.incrementAndGet(), Instant.now(),
+                drones, availability, servicePoints, restrictedAreas);
+    }
+
+    private static void cancelAll(CompletableFuture<?>... futures) {
+        for (CompletableFuture<?> f : futures) {
+            f.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package com.ilp.restapi.client;
+
+import java.nio.file.Path;
+
+/**
+ * Published by {@link FileIlpClient} when one of the recorded dataset files changes,
+ * so the snapshot can be reloaded without waiting for its TTL.
+ */
+public class ReferenceDataChangedEvent {
+
+    private final Path file;
+
+    public ReferenceDataChangedEvent(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ilp.restapi.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+/**
+ * Immutable view of the four ILP reference datasets taken at one point in time.
+ * The version only increases when the data itself changes, so anything derived
+ * from a snapshot can be keyed on it. The lists are shared, not copied, and must
+ * be unmodifiable.
+ */
+public final class ReferenceSnapshot {
+
+    private static final ReferenceSnapshot UNAVAILABLE =
+            new ReferenceSnapshot(0L, Instant.EPOCH, List.of(), List.of(), List.of(), List.of());
+
+    private final long version;
+    private final Instant fetchedAt;
+    private final List<DroneDTO> drones;
+    private final List<ServicePointSchedule> availability;
+    private final List<ServicePointDTO> servicePoints;
+    private final List<RestrictedAreaDTO> restrictedAreas;
+
+    public ReferenceSnapshot(long version,
+                             Instant fetchedAt,
+                             List<DroneDTO> drones,
+                             List<ServicePointSchedule> availability,
+                             List<ServicePointDTO> servicePoints,
+                             List<RestrictedAreaDTO> restrictedAreas) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.drones = drones;
+        this.availability = availability;
+        this.servicePoints = servicePoints;
+        this.restrictedAreas = restrictedAreas;
+    }
+
+    /**
+     * Placeholder served when nothing has ever been loaded and the upstream is down.
+     * Version 0 is never used by a real snapshot.
+     */
+    public static ReferenceSnapshot unavailable() {
+        return UNAVAILABLE;
+    }
+
+    /** False only for the {@link #unavailable()} placeholder. */
+    public boolean isAvailable() {
+        return version > 0;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public List<DroneDTO> getDrones() {
+        return drones;
+    }
+
+    public List<ServicePointSchedule> getAvailability() {
+        return availability;
+    }
+
+    public List<ServicePointDTO> getServicePoints() {
+        return servicePoints;
+    }
+
+    public List<RestrictedAreaDTO> getRestrictedAreas() {
+        return restrictedAreas;
+    }
+
+    /** Same data and version, revalidated against the upstream at the given time. */
+    public ReferenceSnapshot revalidatedAt(Instant when) {
+        return new ReferenceSnapshot(version, when, drones, availability, servicePoints, restrictedAreas);
+    }
+
+    /** True if every dataset is the very same list instance as in the other snapshot. */
+    public boolean sameDataAs(List<DroneDTO> otherDrones,
+                              List<ServicePointSchedule> otherAvailability,
+                              List<ServicePointDTO> otherServicePoints,
+                              List<RestrictedAreaDTO> otherRestrictedAreas) {
+        return drones == otherDrones
+                && availability == otherAvailability
+                && servicePoints == otherServicePoints
+                && restrictedAreas == otherRestrictedAreas;
+    }
+
+    public Duration age(Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ilp.restapi.client;
+
+/**
+ * Compact form of one {@code /drones-for-service-points} entry: the drones listed at a
+ * service point and their availability as packed {@link WeeklyWindows}.
+ *
+ * Drone ids are already parsed; entries whose id is not a number are dropped while
+ * reading, as nothing could ever match them. The arrays are shared and must not be
+ * modified.
+ */
+public final class ServicePointSchedule {
+
+    private final int servicePointId;
+    private final int[] droneIds;
+    private final int[][] windows;
+
+    public ServicePointSchedule(int servicePointId, int[] droneIds, int[][] windows) {
+        this.servicePointId = servicePointId;
+        this.droneIds = droneIds;
+        this.windows = windows;
+    }
+
+    public int getServicePointId() {
+        return servicePointId;
+    }
+
+    public int droneCount() {
+        return droneIds.length;
+    }
+
+    public int droneId(int i) {
+        return droneIds[i];
+    }
+
+    /** Packed windows of the i-th listed drone; empty if it has no availability. */
+    public int[] windows(int i) {
+        return windows[i];
+    }
+}
@@ -0,0 +1,64 @@
+package com.ilp.restapi.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls to the same upstream fetch.
+ *
+ * The first caller runs the fetch; anyone arriving while it is still in flight waits
+ * for that call and receives the very same result object instead of issuing its own
+ * request.
+ */
+class SingleFlight<T> {
+
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    T run(Supplier<T> call) {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.compareAndExchange(null, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            T result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.compareAndSet(mine, null);
+        }
+    }
+
+    /** Number of calls that actually went to the upstream. */
+    long executedCount() {
+        return executed.sum();
+    }
+
+    /** Number of calls that piggybacked on an in-flight fetch. */
+    long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's failure as-is so callers see the same exception type
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.ilp.restapi.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.LimitsDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+/**
+ * Keeps the last good reference snapshot on local disk so a restarted node can serve
+ * realistic data before its first upstream fetch completes.
+ *
+ * The file is a compact binary encoding of the four datasets (nulls preserved) followed
+ * by a CRC32. It is written to a temporary file and moved into place, so readers never
+ * see a partial file. A missing, corrupt or outdated file is simply ignored. An empty
+ * {@code ilp.snapshot.store.file} disables persistence.
+ */
+@Component
+public class SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private static final int MAGIC = 0x494C5053; // "ILPS"
+    private static final int FORMAT = 1;
+
+    private final Path file;
+
+    public SnapshotStore(@Value("${ilp.snapshot.store.file:}") String file) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+    }
+
+    /** A store that never reads or writes anything. */
+    public static SnapshotStore disabled() {
+        return new SnapshotStore("");
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Reads the persisted snapshot and gives it the supplied version, keeping its original
+     * fetch time so its age stays honest. Returns null if there is nothing usable.
+     */
+    public ReferenceSnapshot load(long version) {
+        if (file == null) return null;
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length < Integer.BYTES) return null;
+
+            int payloadLength = bytes.length - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, payloadLength);
+            if ((int) crc.getValue() != ByteBuffer.wrap(bytes, payloadLength, Integer.BYTES).getInt()) {
+                log.warn("Ignoring persisted reference snapshot {}: checksum mismatch", file);
+                return null;
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, payloadLength));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                log.warn("Ignoring persisted reference snapshot {}: unknown format", file);
+                return null;
+            }
+            Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+            List<DroneDTO> drones = readDrones(in);
+            List<ServicePointSchedule> availability = readSchedules(in);
+            List<ServicePointDTO> servicePoints = readServicePoints(in);
+            List<RestrictedAreaDTO> restrictedAreas = readRestrictedAreas(in);
+            return new ReferenceSnapshot(version, fetchedAt, drones, availability, servicePoints, restrictedAreas);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring persisted reference snapshot {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /** Persists the snapshot; failures are logged and otherwise ignored. */
+    public void save(ReferenceSnapshot snapshot) {
+        if (file == null || !snapshot.isAvailable()) return;
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(snapshot.getFetchedAt().toEpochMilli());
+            writeData(out, snapshot.getDrones(), snapshot.getAvailability(),
+                    snapshot.getServicePoints(), snapshot.getRestrictedAreas());
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.toByteArray());
+            out.writeInt((int) crc.getValue());
+            out.flush();
+
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, buffer.toByteArray());
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            log.warn("Could not persist reference snapshot to {}: {}", file, e.toString());
+        }
+    }
+
+    /**
+     * True if the datasets hold the same values as the snapshot, compared through their
+     * encoding since the DTOs have no value equality. Used to recognise a restored
+     * snapshot that the upstream still agrees with.
+     */
+    static boolean sameData(ReferenceSnapshot snapshot,
+                            List<DroneDTO> drones,
+                            List<ServicePointSchedule> availability,
+                            List<ServicePointDTO> servicePoints,
+                            List<RestrictedAreaDTO> restrictedAreas) {
+        try {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream(64 * 1024);
+            writeData(new DataOutputStream(expected), snapshot.getDrones(), snapshot.getAvailability(),
+                    snapshot.getServicePoints(), snapshot.getRestrictedAreas());
+            ByteArrayOutputStream actual = new ByteArrayOutputStream(expected.size());
+            writeData(new DataOutputStream(actual), drones, availability, servicePoints, restrictedAreas);
+            return Arrays.equals(expected.toByteArray(), actual.toByteArray());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void writeData(DataOutputStream out,
+                                  List<DroneDTO> drones,
+                                  List<ServicePointSchedule> availability,
+                                  List<ServicePointDTO> servicePoints,
+                                  List<RestrictedAreaDTO> restrictedAreas) throws IOException {
+        writeDrones(out, drones);
+        writeSchedules(out, availability);
+        writeServicePoints(out, servicePoints);
+        writeRestrictedAreas(out, restrictedAreas);
+        out.flush();
+    }
+
+    // -------------------- DRONES --------------------
+
+    private static void writeDrones(DataOutputStream out, List<DroneDTO> drones) throws IOException {
+        out.writeInt(drones.size());
+        for (DroneDTO d : drones) {
+            writeString(out, d.getName());
+            out.writeInt(d.getId());
+            CapabilityDTO cap = d.getCapability();
+            out.writeBoolean(cap != null);
+            if (cap == null) continue;
+            out.writeBoolean(cap.isCooling());
+            out.writeBoolean(cap.isHeating());
+            writeDouble(out, cap.getCapacity());
+            out.writeInt(cap.getMaxMoves());
+            writeDouble(out, cap.getCostPerMove());
+            writeDouble(out, cap.getCostInitial());
+            writeDouble(out, cap.getCostFinal());
+        }
+    }
+
+    private static List<DroneDTO> readDrones(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<DroneDTO> drones = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            DroneDTO d = new DroneDTO();
+            d.setName(readString(in));
+            d.setId(in.readInt());
+            if (in.readBoolean()) {
+                CapabilityDTO cap = new CapabilityDTO();
+                cap.setCooling(in.readBoolean());
+                cap.setHeating(in.readBoolean());
+                cap.setCapacity(readDouble(in));
+                cap.setMaxMoves(in.readInt());
+                cap.setCostPerMove(readDouble(in));
+                cap.setCostInitial(readDouble(in));
+                cap.setCostFinal(readDouble(in));
+                d.setCapability(cap);
+            }
+            drones.add(d);
+        }
+        return Collections.unmodifiableList(drones);
+    }
+
+    // -------------------- AVAILABILITY --------------------
+
+    private static void writeSchedules(DataOutputStream out, List<ServicePointSchedule> schedules) throws IOException {
+        out.writeInt(schedules.size());
+        for (ServicePointSchedule sp : schedules) {
+            out.writeInt(sp.getServicePointId());
+            out.writeInt(sp.droneCount());
+            for (int k = 0; k < sp.droneCount(); k++) {
+                out.writeInt(sp.droneId(k));
+                int[] windows = sp.windows(k);
+                out.writeInt(windows.length);
+                for (int w : windows) {
+                    out.writeInt(w);
+                }
+            }
+        }
+    }
+
+    private static List<ServicePointSchedule> readSchedules(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<ServicePointSchedule> schedules = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int servicePointId = in.readInt();
+            int count = in.readInt();
+            int[] ids = new int[count];
+            int[][] windows = new int[count][];
+            for (int k = 0; k < count; k++) {
+                ids[k] = in.readInt();
+                windows[k] = new int[in.readInt()];
+                for (int w = 0; w < windows[k].length; w++) {
+                    windows[k][w] = in.readInt();
+                }
+            }
+            schedules.add(new ServicePointSchedule(servicePointId, ids, windows));
+        }
+        return Collections.unmodifiableList(schedules);
+    }
+
+    // -------------------- SERVICE POINTS / RESTRICTED AREAS --------------------
+
+    private static void writeServicePoints(DataOutputStream out, List<ServicePointDTO> servicePoints) throws IOException {
+        out.writeInt(servicePoints.size());
+        for (ServicePointDTO sp : servicePoints) {
+            out.writeBoolean(sp != null);
+            if (sp == null) continue;
+            writeInt(out, sp.getId());
+            writeString(out, sp.getName());
+            writePoint(out, sp.getLocation());
+        }
+    }
+
+    private static List<ServicePointDTO> readServicePoints(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<ServicePointDTO> servicePoints = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (!in.readBoolean()) {
+                servicePoints.add(null);
+                continue;
+            }
+            ServicePointDTO sp = new ServicePointDTO();
+            sp.setId(readInt(in));
+            sp.setName(readString(in));
+            sp.setLocation(readPoint(in));
+            servicePoints.add(sp);
+        }
+        return Collections.unmodifiableList(servicePoints);
+    }
+
+    private static void writeRestrictedAreas(DataOutputStream out, List<RestrictedAreaDTO> areas) throws IOException {
+        out.writeInt(areas.size());
+        for (RestrictedAreaDTO area : areas) {
+            out.writeBoolean(area != null);
+            if (area == null) continue;
+            writeInt(out, area.getId());
+            writeString(out, area.getName());
+            LimitsDTO limits = area.getLimits();
+            out.writeBoolean(limits != null);
+            if (limits != null) {
+                writeDouble(out, limits.getLower());
+                writeDouble(out, limits.getUpper());
+            }
+            List<LngLatDTO> vertices = area.getVertices();
+            out.writeInt(vertices == null ? -1 : vertices.size());
+            if (vertices != null) {
+                for (LngLatDTO v : vertices) {
+                    writePoint(out, v);
+                }
+            }
+        }
+    }
+
+    private static List<RestrictedAreaDTO> readRestrictedAreas(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<RestrictedAreaDTO> areas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (!in.readBoolean()) {
+                areas.add(null);
+                continue;
+            }
+            RestrictedAreaDTO area = new RestrictedAreaDTO();
+            area.setId(readInt(in));
+            area.setName(readString(in));
+            if (in.readBoolean()) {
+                LimitsDTO limits = new LimitsDTO();
+                limits.setLower(readDouble(in));
+                limits.setUpper(readDouble(in));
+                area.setLimits(limits);
+            }
+            int count = in.readInt();
+            if (count >= 0) {
+                List<LngLatDTO> vertices = new ArrayList<>(count);
+                for (int v = 0; v < count; v++) {
+                    vertices.add(readPoint(in));
+                }
+                area.setVertices(vertices);
+            }
+            areas.add(area);
+        }
+        return Collections.unmodifiableList(areas);
+    }
+
+    // -------------------- NULLABLE PRIMITIVES --------------------
+
+    private static void writePoint(DataOutputStream out, LngLatDTO p) throws IOException {
+        out.writeBoolean(p != null);
+        if (p == null) return;
+        writeDouble(out, p.getLng());
+        writeDouble(out, p.getLat());
+    }
+
+    private static LngLatDTO readPoint(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+        Double lng = readDouble(in);
+        Double lat = readDouble(in);
+        return new LngLatDTO(lng, lat);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeDouble(DataOutputStream out, Double d) throws IOException {
+        out.writeBoolean(d != null);
+        if (d != null) out.writeDouble(d);
+    }
+
+    private static Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static void writeInt(DataOutputStream out, Integer i) throws IOException {
+        out.writeBoolean(i != null);
+        if (i != null) out.writeInt(i);
+    }
+
+    private static Integer readInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
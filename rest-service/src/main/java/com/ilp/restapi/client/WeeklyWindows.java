@@ -0,0 +1,77 @@
+package com.ilp.restapi.client;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Availability slots packed as second-of-week ranges.
+ *
+ * A drone's windows are one {@code int[]} of {@code [start, end]} pairs, both bounds
+ * inclusive, where {@code start = (dayOfWeek - 1) * 86400 + secondOfDay}. Slot bounds
+ * are kept at second precision, which is what the ILP service publishes.
+ *
+ * {@link #normalize} sorts and merges a drone's windows into disjoint intervals, after
+ * which {@link #contains} is a binary search.
+ */
+public final class WeeklyWindows {
+
+    public static final int SECONDS_PER_DAY = 86_400;
+    public static final int SECONDS_PER_WEEK = 7 * SECONDS_PER_DAY;
+
+    private WeeklyWindows() {
+    }
+
+    public static int secondOfWeek(DayOfWeek day, LocalTime time) {
+        return (day.getValue() - 1) * SECONDS_PER_DAY + time.toSecondOfDay();
+    }
+
+    /**
+     * Sorts the windows by start and merges the ones that overlap or touch. Windows one
+     * second apart stay separate: a time with a fractional second between them is in
+     * neither. Returns a new array; null stays null.
+     */
+    public static int[] normalize(int[] windows) {
+        if (windows == null || windows.length <= 2) return windows;
+
+        long[] packed = new long[windows.length / 2];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = ((long) windows[2 * i] << 32) | (windows[2 * i + 1] & 0xFFFF_FFFFL);
+        }
+        Arrays.sort(packed);   // bounds are never negative, so this sorts by start
+
+        int[] out = new int[windows.length];
+        int n = 0;
+        for (long p : packed) {
+            int start = (int) (p >>> 32);
+            int end = (int) p;
+            if (n > 0 && start <= out[n - 1]) {
+                out[n - 1] = Math.max(out[n - 1], end);
+            } else {
+                out[n++] = start;
+                out[n++] = end;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * True if {@code time} on {@code day} falls inside any window, with the same
+     * inclusive semantics as {@code !time.isBefore(from) && !time.isAfter(until)}.
+     * The windows must be {@linkplain #normalize normalized}.
+     */
+    public static boolean contains(int[] windows, DayOfWeek day, LocalTime time) {
+        if (windows == null || windows.length == 0) return false;
+        int s = secondOfWeek(day, time);
+
+        // Last window starting at or before s
+        int lo = 0, hi = windows.length / 2;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (windows[2 * mid] <= s) lo = mid + 1; else hi = mid;
+        }
+        if (lo == 0) return false;
+        int end = windows[2 * lo - 1];
+        return s < end || (s == end && time.getNano() == 0);
+    }
+}
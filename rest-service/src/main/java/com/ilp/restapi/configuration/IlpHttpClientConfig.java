@@ -0,0 +1,59 @@
+package com.ilp.restapi.configuration;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.ilp.restapi.client.InstrumentedConnectionManager;
+
+/**
+ * HTTP client used to reach the ILP service: an explicitly sized connection pool with
+ * keep-alive and idle eviction, instrumented so lease waits and pool usage are visible
+ * under {@code /actuator/metrics}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ilp.client.mode", havingValue = "http", matchIfMissing = true)
+public class IlpHttpClientConfig {
+
+    @Bean
+    public CloseableHttpClient ilpHttpClient(MeterRegistry meterRegistry,
+                                             @Value("${ilp.client.pool.max-total:20}") int maxTotal,
+                                             @Value("${ilp.client.pool.max-per-route:10}") int maxPerRoute,
+                                             @Value("${ilp.client.pool.keep-alive:PT60S}") Duration keepAlive,
+                                             @Value("${ilp.client.pool.idle-timeout:PT30S}") Duration idleTimeout,
+                                             @Value("${ilp.client.pool.lease-timeout:PT5S}") Duration leaseTimeout) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofSeconds(5))
+                        .setSocketTimeout(Timeout.ofSeconds(10))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(new InstrumentedConnectionManager(
+                        pool, TimeValue.ofMilliseconds(idleTimeout.toMillis()), meterRegistry))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofSeconds(10))
+                        // Used when the server does not say how long it keeps connections open
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                        .build())
+                .build();
+    }
+}
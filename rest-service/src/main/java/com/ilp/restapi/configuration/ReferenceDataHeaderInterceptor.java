@@ -0,0 +1,42 @@
+package com.ilp.restapi.configuration;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.ilp.restapi.client.ReferenceDataCache;
+import com.ilp.restapi.client.ReferenceSnapshot;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tells clients which reference data answered their request and how old it is.
+ * During an upstream outage the age keeps growing while the last good snapshot is served.
+ * The very first request waits for the initial load like the handler would, so it is
+ * labelled too.
+ */
+@Component
+public class ReferenceDataHeaderInterceptor implements HandlerInterceptor {
+
+    static final String VERSION_HEADER = "X-Reference-Data-Version";
+    static final String AGE_HEADER = "X-Reference-Data-Age";
+
+    private final ReferenceDataCache referenceData;
+
+    public ReferenceDataHeaderInterceptor(ReferenceDataCache referenceData) {
+        this.referenceData = referenceData;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReferenceSnapshot snapshot = referenceData.snapshot();
+        if (snapshot.isAvailable()) {
+            response.setHeader(VERSION_HEADER, Long.toString(snapshot.getVersion()));
+            // Age in whole seconds since the data was last confirmed with the upstream
+            response.setHeader(AGE_HEADER, Long.toString(snapshot.age(Instant.now()).toSeconds()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ilp.restapi.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ReferenceDataHeaderInterceptor referenceDataHeaderInterceptor;
+
+    public WebConfig(ReferenceDataHeaderInterceptor referenceDataHeaderInterceptor) {
+        this.referenceDataHeaderInterceptor = referenceDataHeaderInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(referenceDataHeaderInterceptor).addPathPatterns("/api/v1/**");
+    }
+}
@@ -16,6 +16,7 @@ import com.ilp.restapi.data.RegionCheckDTO;
 import com.ilp.restapi.data.MovementVectorDTO;
 import com.ilp.restapi.data.QueryConditionDTO;
 import com.ilp.restapi.data.SegmentDTO;
+import com.ilp.restapi.query.QueryPage;
 import com.ilp.restapi.service.DistanceCalculationService;
 import com.ilp.restapi.service.DroneService;
 import com.ilp.restapi.service.NextPositionService;
@@ -23,11 +24,13 @@ import com.ilp.restapi.service.RegionCheckerService;
 
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping("/api/v1")
 public class Controller {
-    
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     // Uses the constructor method to initialize the services
     private DistanceCalculationService distanceCalculationService;
@@ -89,6 +92,17 @@ public class Controller {
         return ResponseEntity.ok(drone);
     }
 
+    @PostMapping("/droneDetails")
+    public ResponseEntity<List<DroneDTO>> getDroneDetailsBatch(
+            @RequestBody(required = false) List<Integer> ids) {
+
+        // Unknown ids are skipped, so a batch never 404s; no body means no drones
+        if (ids == null) {
+            ids = List.of();
+        }
+        return ResponseEntity.ok(droneService.findDronesByIds(ids));
+    }
+
     @GetMapping("/queryAsPath/{attribute}/{value}")
     public ResponseEntity<List<Integer>> queryAsPath(
         @PathVariable String attribute,
@@ -100,15 +114,29 @@ public class Controller {
 
     @PostMapping("/query")
     public ResponseEntity<List<Integer>> query(
-            @RequestBody(required = false) List<QueryConditionDTO> conditions) {
+            @RequestBody(required = false) List<QueryConditionDTO> conditions,
+            @RequestParam(required = false) String orderBy,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
 
         // If body is missing or invalid, treat as empty list
         if (conditions == null) {
             conditions = List.of();
         }
 
-        List<Integer> result = droneService.query(conditions);
-        return ResponseEntity.ok(result);
+        if (orderBy == null && order == null && limit == null && cursor == null) {
+            List<Integer> result = droneService.query(conditions);
+            return ResponseEntity.ok(result);
+        }
+
+        // Sorted/paged form: the cursor for the next page goes in a header, the body stays a list of ids
+        QueryPage page = droneService.queryPage(conditions, orderBy, order, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getIds());
     }
 
     @PostMapping("/queryAvailableDrones")
@@ -1,10 +1,14 @@
 package com.ilp.restapi.data;
 
+import java.util.List;
+
 public class QueryConditionDTO {
 
     private String attribute;
     private String operator;
     private String value;
+    // OR group: set instead of attribute/operator/value
+    private List<QueryConditionDTO> anyOf;
 
     public QueryConditionDTO() {
     }
@@ -32,4 +36,12 @@ public class QueryConditionDTO {
     public void setValue(String value) {
         this.value = value;
     }
+
+    public List<QueryConditionDTO> getAnyOf() {
+        return anyOf;
+    }
+
+    public void setAnyOf(List<QueryConditionDTO> anyOf) {
+        this.anyOf = anyOf;
+    }
 }
@@ -0,0 +1,30 @@
+package com.ilp.restapi.query;
+
+import java.util.List;
+
+import com.ilp.restapi.data.DroneDTO;
+
+/**
+ * An OR of {@link CompiledCondition}s: a plain condition, an {@code IN} list or an
+ * {@code anyOf} group. A clause always has at least one alternative; one whose
+ * alternatives can never match makes the whole query unsatisfiable instead.
+ */
+public final class CompiledClause {
+
+    private final CompiledCondition[] alternatives;
+
+    CompiledClause(CompiledCondition[] alternatives) {
+        this.alternatives = alternatives;
+    }
+
+    public List<CompiledCondition> alternatives() {
+        return List.of(alternatives);
+    }
+
+    public boolean test(DroneDTO drone) {
+        for (CompiledCondition c : alternatives) {
+            if (c.test(drone)) return true;
+        }
+        return false;
+    }
+}
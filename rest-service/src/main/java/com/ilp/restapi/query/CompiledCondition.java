@@ -0,0 +1,174 @@
+package com.ilp.restapi.query;
+
+import java.util.Locale;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+
+/**
+ * One query condition with its attribute resolved and its value parsed up front.
+ *
+ * Matching a drone is then a field read and a primitive comparison. Conditions that can
+ * never match anything (unknown attribute, unparsable value, unsupported operator) are
+ * not represented here; the compiler turns them into an unsatisfiable query instead.
+ * {@code IN} is not an operator of its own either: it compiles to an OR of {@code =}.
+ */
+public final class CompiledCondition {
+
+    public enum Attribute {
+        ID, NAME, COOLING, HEATING, CAPACITY, MAX_MOVES, COST_PER_MOVE, COST_INITIAL, COST_FINAL;
+
+        static Attribute parse(String raw) {
+            return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+                case "id" -> ID;
+                case "name" -> NAME;
+                case "cooling" -> COOLING;
+                case "heating" -> HEATING;
+                case "capacity" -> CAPACITY;
+                case "maxmoves" -> MAX_MOVES;
+                case "costpermove" -> COST_PER_MOVE;
+                case "costinitial" -> COST_INITIAL;
+                case "costfinal" -> COST_FINAL;
+                default -> null;
+            };
+        }
+    }
+
+    public enum Operator {
+        EQ, NE, LT, GT, GE, LE, BETWEEN;
+
+        static Operator parse(String raw) {
+            return switch (raw.trim().toUpperCase(Locale.ROOT)) {
+                case "=" -> EQ;
+                case "!=" -> NE;
+                case "<" -> LT;
+                case ">" -> GT;
+                case ">=" -> GE;
+                case "<=" -> LE;
+                case "BETWEEN" -> BETWEEN;
+                default -> null;
+            };
+        }
+
+        /** True for the operators that need an ordering ({@code <}, {@code >=}, ...). */
+        public boolean isRange() {
+            return this != EQ && this != NE;
+        }
+    }
+
+    private final Attribute attribute;
+    private final Operator operator;
+    private final int intValue;
+    private final double doubleValue;
+    private final boolean booleanValue;
+    private final String stringValue;
+    private final int intUpper;
+    private final double doubleUpper;
+
+    CompiledCondition(Attribute attribute, Operator operator,
+                      int intValue, double doubleValue, boolean booleanValue, String stringValue) {
+        this(attribute, operator, intValue, doubleValue, booleanValue, stringValue, 0, 0);
+    }
+
+    /** {@code BETWEEN}: the values are the inclusive lower bound, the uppers the upper bound. */
+    CompiledCondition(Attribute attribute, Operator operator,
+                      int intValue, double doubleValue, boolean booleanValue, String stringValue,
+                      int intUpper, double doubleUpper) {
+        this.attribute = attribute;
+        this.operator = operator;
+        this.intValue = intValue;
+        this.doubleValue = doubleValue;
+        this.booleanValue = booleanValue;
+        this.stringValue = stringValue;
+        this.intUpper = intUpper;
+        this.doubleUpper = doubleUpper;
+    }
+
+    public Attribute attribute() {
+        return attribute;
+    }
+
+    public Operator operator() {
+        return operator;
+    }
+
+    /** Parsed value for {@code id} and {@code maxMoves}; the lower bound for {@code BETWEEN}. */
+    public int intValue() {
+        return intValue;
+    }
+
+    /** Parsed value for capacity and the cost attributes; the lower bound for {@code BETWEEN}. */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /** Upper bound of an int {@code BETWEEN}. */
+    public int intUpper() {
+        return intUpper;
+    }
+
+    /** Upper bound of a double {@code BETWEEN}. */
+    public double doubleUpper() {
+        return doubleUpper;
+    }
+
+    /** Parsed value for {@code cooling} and {@code heating}. */
+    public boolean booleanValue() {
+        return booleanValue;
+    }
+
+    /** Trimmed value for {@code name}. */
+    public String stringValue() {
+        return stringValue;
+    }
+
+    public boolean test(DroneDTO drone) {
+        if (attribute == Attribute.ID) return compare(drone.getId());
+        if (attribute == Attribute.NAME) return compareName(drone.getName());
+
+        CapabilityDTO cap = drone.getCapability();
+        if (cap == null) return false;
+        return switch (attribute) {
+            case COOLING -> (cap.isCooling() == booleanValue) == (operator == Operator.EQ);
+            case HEATING -> (cap.isHeating() == booleanValue) == (operator == Operator.EQ);
+            case CAPACITY -> compare(cap.getCapacity());
+            case MAX_MOVES -> compare(cap.getMaxMoves());
+            case COST_PER_MOVE -> compare(cap.getCostPerMove());
+            case COST_INITIAL -> compare(cap.getCostInitial());
+            case COST_FINAL -> compare(cap.getCostFinal());
+            default -> false;
+        };
+    }
+
+    private boolean compare(int field) {
+        return switch (operator) {
+            case EQ -> field == intValue;
+            case NE -> field != intValue;
+            case LT -> field < intValue;
+            case GT -> field > intValue;
+            case GE -> field >= intValue;
+            case LE -> field <= intValue;
+            case BETWEEN -> field >= intValue && field <= intUpper;
+        };
+    }
+
+    private boolean compare(double field) {
+        return switch (operator) {
+            case EQ -> Double.compare(field, doubleValue) == 0;
+            case NE -> Double.compare(field, doubleValue) != 0;
+            case LT -> field < doubleValue;
+            case GT -> field > doubleValue;
+            case GE -> field >= doubleValue;
+            case LE -> field <= doubleValue;
+            case BETWEEN -> field >= doubleValue && field <= doubleUpper;
+        };
+    }
+
+    private boolean compareName(String field) {
+        String f = field == null ? null : field.trim();
+        if (operator == Operator.EQ) {
+            return f != null && f.equalsIgnoreCase(stringValue);
+        }
+        return f == null || !f.equalsIgnoreCase(stringValue);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ilp.restapi.query;
+
+import java.util.List;
+
+import com.ilp.restapi.data.DroneDTO;
+
+/**
+ * A conjunction of {@link CompiledClause}s, ready to be evaluated against drones.
+ *
+ * Immutable and shared through the compiler's cache. An unsatisfiable query contains at
+ * least one condition that can never match, so callers can return an empty result
+ * without looking at a single drone.
+ */
+public final class CompiledQuery {
+
+    static final CompiledQuery MATCH_ALL = new CompiledQuery("", new CompiledClause[0], false);
+    static final CompiledQuery UNSATISFIABLE = new CompiledQuery("", new CompiledClause[0], true);
+
+    private final String key;
+    private final CompiledClause[] clauses;
+    private final boolean unsatisfiable;
+
+    CompiledQuery(String key, CompiledClause[] clauses, boolean unsatisfiable) {
+        this.key = key;
+        this.clauses = clauses;
+        this.unsatisfiable = unsatisfiable;
+    }
+
+    /** Normalized text of the query; equal keys always select the same drones. */
+    public String key() {
+        return key;
+    }
+
+    public boolean isUnsatisfiable() {
+        return unsatisfiable;
+    }
+
+    /** True if there are no conditions at all, so every drone matches. */
+    public boolean isMatchAll() {
+        return !unsatisfiable && clauses.length == 0;
+    }
+
+    public List<CompiledClause> clauses() {
+        return List.of(clauses);
+    }
+
+    public boolean matches(DroneDTO drone) {
+        if (unsatisfiable) return false;
+        for (CompiledClause c : clauses) {
+            if (!c.test(drone)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ilp.restapi.query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ilp.restapi.data.QueryConditionDTO;
+import com.ilp.restapi.query.CompiledCondition.Attribute;
+import com.ilp.restapi.query.CompiledCondition.Operator;
+
+/**
+ * Turns drone query conditions into {@link CompiledQuery} programs.
+ *
+ * Attribute names are resolved, operators checked and values parsed once per query
+ * instead of once per drone and condition. Compiled queries are cached by their
+ * normalized text (attribute lower-cased and trimmed, operator trimmed, value as given),
+ * so repeated queries skip compilation entirely.
+ *
+ * Top-level conditions are ANDed. Besides {@code = != < > >= <=} a condition may use
+ * {@code BETWEEN} (value {@code "low,high"}, both inclusive) or {@code IN} (value
+ * {@code "a,b,c"}), and a condition with {@code anyOf} instead of an attribute is an OR
+ * group of its members. Every top-level condition becomes one {@link CompiledClause}.
+ */
+@Component
+public class QueryCompiler {
+
+    private final Map<String, CompiledQuery> cache;
+
+    public QueryCompiler(@Value("${ilp.query.compiled-cache-size:1024}") int cacheSize) {
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /** Compiles an AND of conditions; null or empty matches every drone. */
+    public CompiledQuery compile(List<QueryConditionDTO> conditions) {
+        if (conditions == null || conditions.isEmpty()) {
+            return CompiledQuery.MATCH_ALL;
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (QueryConditionDTO c : conditions) {
+            if (c == null) return CompiledQuery.UNSATISFIABLE;
+            appendKey(key, c);
+        }
+        String normalized = key.toString();
+
+        synchronized (cache) {
+            CompiledQuery cached = cache.get(normalized);
+            if (cached != null) return cached;
+        }
+
+        CompiledQuery query = build(normalized, conditions);
+
+        synchronized (cache) {
+            cache.put(normalized, query);
+        }
+        return query;
+    }
+
+    /** Compiles a single condition, e.g. the path form {@code /queryAsPath/{attribute}/{value}}. */
+    public CompiledQuery compile(String attribute, String operator, String value) {
+        QueryConditionDTO c = new QueryConditionDTO();
+        c.setAttribute(attribute);
+        c.setOperator(operator);
+        c.setValue(value);
+        return compile(List.of(c));
+    }
+
+    private static CompiledQuery build(String key, List<QueryConditionDTO> conditions) {
+        CompiledClause[] clauses = new CompiledClause[conditions.size()];
+        for (int i = 0; i < clauses.length; i++) {
+            List<CompiledCondition> alternatives = new ArrayList<>();
+            collectAlternatives(conditions.get(i), alternatives);
+            // An OR with nothing that can match is false, and so is the whole AND
+            if (alternatives.isEmpty()) return CompiledQuery.UNSATISFIABLE;
+            clauses[i] = new CompiledClause(alternatives.toArray(new CompiledCondition[0]));
+        }
+        return new CompiledQuery(key, clauses, false);
+    }
+
+    // Alternatives that can never match are left out; nested groups are flattened
+    private static void collectAlternatives(QueryConditionDTO c, List<CompiledCondition> out) {
+        if (c == null) return;
+        if (c.getAnyOf() != null) {
+            // A group is only the OR of its members; mixing in a condition of its own is invalid
+            if (c.getAttribute() != null || c.getOperator() != null || c.getValue() != null) return;
+            for (QueryConditionDTO member : c.getAnyOf()) {
+                collectAlternatives(member, out);
+            }
+            return;
+        }
+        if (c.getOperator() != null && "IN".equalsIgnoreCase(c.getOperator().trim())) {
+            if (c.getValue() == null) return;
+            for (String item : c.getValue().split(",", -1)) {
+                CompiledCondition eq = compileCondition(c.getAttribute(), "=", item.trim());
+                if (eq != null) out.add(eq);
+            }
+            return;
+        }
+        CompiledCondition atom = compileCondition(c.getAttribute(), c.getOperator(), c.getValue());
+        if (atom != null) out.add(atom);
+    }
+
+    /** Returns null if the condition can never match any drone. */
+    static CompiledCondition compileCondition(String attribute, String operator, String value) {
+        if (attribute == null || operator == null || value == null) return null;
+
+        Attribute attr = Attribute.parse(attribute);
+        Operator op = Operator.parse(operator);
+        if (attr == null || op == null) return null;
+
+        if (op == Operator.BETWEEN) return compileBetween(attr, value);
+
+        try {
+            return switch (attr) {
+                case ID, MAX_MOVES -> new CompiledCondition(attr, op, Integer.parseInt(value), 0, false, null);
+                case CAPACITY, COST_PER_MOVE, COST_INITIAL, COST_FINAL ->
+                        new CompiledCondition(attr, op, 0, Double.parseDouble(value), false, null);
+                case COOLING, HEATING -> {
+                    if (op.isRange()) yield null;
+                    if ("true".equalsIgnoreCase(value)) yield new CompiledCondition(attr, op, 0, 0, true, null);
+                    if ("false".equalsIgnoreCase(value)) yield new CompiledCondition(attr, op, 0, 0, false, null);
+                    yield null;
+                }
+                case NAME -> op.isRange()
+                        ? null
+                        : new CompiledCondition(attr, op, 0, 0, false, value.trim());
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static CompiledCondition compileBetween(Attribute attr, String value) {
+        String[] bounds = value.split(",", -1);
+        if (bounds.length != 2) return null;
+        String low = bounds[0].trim();
+        String high = bounds[1].trim();
+        try {
+            return switch (attr) {
+                case ID, MAX_MOVES -> new CompiledCondition(attr, Operator.BETWEEN,
+                        Integer.parseInt(low), 0, false, null, Integer.parseInt(high), 0);
+                case CAPACITY, COST_PER_MOVE, COST_INITIAL, COST_FINAL -> new CompiledCondition(attr, Operator.BETWEEN,
+                        0, Double.parseDouble(low), false, null, 0, Double.parseDouble(high));
+                default -> null;
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Length-prefixed so no combination of values can produce another query's key
+    private static void appendKey(StringBuilder key, QueryConditionDTO c) {
+        if (c == null) {
+            key.append('N');
+            return;
+        }
+        key.append('C');
+        appendPart(key, c.getAttribute() == null ? null : c.getAttribute().trim().toLowerCase(Locale.ROOT));
+        appendPart(key, c.getOperator() == null ? null : c.getOperator().trim().toUpperCase(Locale.ROOT));
+        appendPart(key, c.getValue());
+        if (c.getAnyOf() == null) {
+            key.append('-');
+            return;
+        }
+        key.append('G').append(c.getAnyOf().size()).append(':');
+        for (QueryConditionDTO member : c.getAnyOf()) {
+            appendKey(key, member);
+        }
+    }
+
+    private static void appendPart(StringBuilder key, String part) {
+        if (part == null) {
+            key.append("-1:");
+        } else {
+            key.append(part.length()).append(':').append(part);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ilp.restapi.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a paged drone query: the sort key of the last drone returned.
+ *
+ * Opaque to clients. The key is the drone's value for the order attribute (or that it
+ * has none) plus its fleet index, which makes every key unique. Fleet indices belong to
+ * one reference data version, so a cursor also records the version it was issued for.
+ */
+public final class QueryCursor {
+
+    private final long version;
+    private final boolean missing;
+    private final long valueBits;
+    private final int droneIndex;
+
+    public QueryCursor(long version, boolean missing, long valueBits, int droneIndex) {
+        this.version = version;
+        this.missing = missing;
+        this.valueBits = valueBits;
+        this.droneIndex = droneIndex;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** True if the drone has no value for the order attribute. */
+    public boolean isMissing() {
+        return missing;
+    }
+
+    /** The int value, or the raw bits of the double value, of the order attribute. */
+    public long valueBits() {
+        return valueBits;
+    }
+
+    public int droneIndex() {
+        return droneIndex;
+    }
+
+    public String encode(QueryOrder order) {
+        String text = order.token() + "/" + version + "/" + (missing ? "m" : "v")
+                + "/" + Long.toHexString(valueBits) + "/" + droneIndex;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns null if the text is not a cursor issued for this order. */
+    public static QueryCursor decode(String encoded, QueryOrder order) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(encoded.trim()), StandardCharsets.UTF_8);
+            String prefix = order.token() + "/";
+            if (!text.startsWith(prefix)) return null;
+
+            String[] parts = text.substring(prefix.length()).split("/", -1);
+            if (parts.length != 4) return null;
+            if (!parts[1].equals("m") && !parts[1].equals("v")) return null;
+
+            int droneIndex = Integer.parseInt(parts[3]);
+            if (droneIndex < 0) return null;
+            return new QueryCursor(Long.parseLong(parts[0]), parts[1].equals("m"),
+                    Long.parseUnsignedLong(parts[2], 16), droneIndex);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ilp.restapi.query;
+
+import java.util.Locale;
+
+import com.ilp.restapi.query.CompiledCondition.Attribute;
+
+/**
+ * Sort order of a paged drone query: one numeric attribute, ascending or descending.
+ *
+ * Ties, and every drone when there is no attribute, go in fleet order. Drones without
+ * the value (no capability, or NaN) always come after the ones that have it.
+ */
+public final class QueryOrder {
+
+    /** Plain fleet order. */
+    public static final QueryOrder FLEET = new QueryOrder(null, false);
+
+    private final Attribute attribute;
+    private final boolean descending;
+
+    private QueryOrder(Attribute attribute, boolean descending) {
+        this.attribute = attribute;
+        this.descending = descending;
+    }
+
+    /**
+     * Parses {@code orderBy} (a numeric attribute, or null for fleet order) and
+     * {@code direction} ({@code asc}/{@code desc}, default ascending). Returns null if
+     * either is invalid.
+     */
+    public static QueryOrder parse(String orderBy, String direction) {
+        boolean descending = false;
+        if (direction != null) {
+            switch (direction.trim().toLowerCase(Locale.ROOT)) {
+                case "asc" -> descending = false;
+                case "desc" -> descending = true;
+                default -> {
+                    return null;
+                }
+            }
+        }
+        if (orderBy == null) return descending ? null : FLEET;
+
+        Attribute attribute = Attribute.parse(orderBy);
+        if (attribute == null || attribute == Attribute.NAME
+                || attribute == Attribute.COOLING || attribute == Attribute.HEATING) {
+            return null;
+        }
+        return new QueryOrder(attribute, descending);
+    }
+
+    /** The attribute to sort by, or null for fleet order. */
+    public Attribute attribute() {
+        return attribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /** True for attributes whose values are ints rather than doubles. */
+    public boolean isIntValued() {
+        return attribute == Attribute.ID || attribute == Attribute.MAX_MOVES;
+    }
+
+    String token() {
+        return (attribute == null ? "-" : attribute.name()) + (descending ? "/d" : "/a");
+    }
+}
@@ -0,0 +1,24 @@
+package com.ilp.restapi.query;
+
+import java.util.List;
+
+/** One page of a sorted drone query, with the cursor for the next page if there is one. */
+public final class QueryPage {
+
+    private final List<Integer> ids;
+    private final String nextCursor;
+
+    public QueryPage(List<Integer> ids, String nextCursor) {
+        this.ids = ids;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    /** Null on the last page. */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ilp.restapi.query;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of drone query results for the current reference data version.
+ *
+ * Results only change when the fleet does, so they are keyed by the query's normalized
+ * text ({@link CompiledQuery#key()}) and belong to one snapshot version. The first
+ * lookup for a newer version drops every cached result; lookups for an older version
+ * (a request that started before the swap) are computed but not stored. Least recently
+ * used results are evicted beyond {@code ilp.query.result-cache-size} entries.
+ *
+ * Hits, misses, size and hit ratio are published as {@code ilp.query.result.cache.*}.
+ */
+@Component
+public class QueryResultCache {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, List<Integer>> results;
+    private long version = Long.MIN_VALUE;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public QueryResultCache(@Value("${ilp.query.result-cache-size:512}") int cacheSize,
+                            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.results = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Integer>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // Registered once constructed, so the gauges never see a partly built cache
+    @PostConstruct
+    void registerMeters() {
+        FunctionCounter.builder("ilp.query.result.cache.hits", hits, LongAdder::sum)
+                .description("Drone queries answered from the result cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("ilp.query.result.cache.misses", misses, LongAdder::sum)
+                .description("Drone queries that had to be evaluated")
+                .register(meterRegistry);
+        Gauge.builder("ilp.query.result.cache.size", this, QueryResultCache::size)
+                .description("Query results cached for the current reference data version")
+                .register(meterRegistry);
+        Gauge.builder("ilp.query.result.cache.hit.ratio", this, QueryResultCache::hitRatio)
+                .description("Share of drone queries answered from the result cache")
+                .register(meterRegistry);
+    }
+
+    /** Cached ids for the query at this version, or the freshly computed (and stored) ones. */
+    public List<Integer> get(CompiledQuery query, long dataVersion, Supplier<List<Integer>> compute) {
+        String key = query.key();
+        synchronized (results) {
+            if (dataVersion > version) {
+                results.clear();
+                version = dataVersion;
+            }
+            List<Integer> cached = dataVersion == version ? results.get(key) : null;
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        misses.increment();
+        List<Integer> computed = List.copyOf(compute.get());
+        synchronized (results) {
+            if (dataVersion == version) {
+                results.put(key, computed);
+            }
+        }
+        return computed;
+    }
+
+    int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
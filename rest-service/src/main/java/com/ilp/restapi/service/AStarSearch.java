@@ -0,0 +1,346 @@
+package com.ilp.restapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.PathResult;
+import com.ilp.restapi.world.LongIntHashMap;
+import com.ilp.restapi.world.RestrictedAreaGeometry;
+
+/**
+ * A* over the 16-direction move graph, one move per edge, with a straight-line fast
+ * path for legs nothing stands in the way of (see {@link #straightLine}).
+ *
+ * Nodes live in parallel primitive arrays and are found by lattice key (see
+ * {@link #latticeKey}); the open set is a binary heap of node indices with decrease-key.
+ * All of it is scratch space owned by the calling thread and reused by the next search,
+ * so a search allocates nothing but its result. Scratch that grew past
+ * {@code RETAINED_NODES} for one large search is dropped afterwards.
+ */
+final class AStarSearch {
+
+    // Lattice units per step, see latticeKey
+    static final int LATTICE_DIVISIONS = 1 << 16;
+
+    private static final int MAX_EXPANSIONS = 50_000;
+    private static final int RETAINED_NODES = 1 << 16;
+    private static final int DIRECTIONS = 16;
+    private static final double SECTOR = Math.PI / 8;
+    // Distance of a 16-gon edge from the centre, in steps
+    private static final double EDGE_DISTANCE = Math.cos(SECTOR / 2);
+
+    private final double stepSize;
+    private final double closeEpsilon;
+    private final double latticeUnit;
+
+    // Offsets of the 16 moves, computed exactly like a single step from a point
+    private final double[] dLng = new double[DIRECTIONS];
+    private final double[] dLat = new double[DIRECTIONS];
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    AStarSearch(double stepSize, double closeEpsilon) {
+        this.stepSize = stepSize;
+        this.closeEpsilon = closeEpsilon;
+        this.latticeUnit = stepSize / LATTICE_DIVISIONS;
+        for (int k = 0; k < DIRECTIONS; k++) {
+            double angleRad = Math.toRadians(k * 22.5);
+            dLng[k] = stepSize * Math.cos(angleRad);
+            dLat[k] = stepSize * Math.sin(angleRad);
+        }
+    }
+
+    /**
+     * Shortest path from start to within closeEpsilon of end, avoiding the restricted
+     * areas (may be null), or null if none is found within maxMoves and the expansion
+     * budget. The path starts at start and ends at the first point close to end.
+     */
+    PathResult search(LngLatDTO start, LngLatDTO end, int maxMoves, RestrictedAreaGeometry restrictedAreas) {
+        PathResult direct = straightLine(start, end, maxMoves, restrictedAreas);
+        if (direct != null) {
+            return direct;
+        }
+        return searchGraph(start, end, maxMoves, restrictedAreas);
+    }
+
+    /** The A* search on its own, without the straight-line fast path. */
+    PathResult searchGraph(LngLatDTO start, LngLatDTO end, int maxMoves, RestrictedAreaGeometry restrictedAreas) {
+        Scratch s = scratch.get();
+        try {
+            s.reset();
+            return run(s, start.getLng(), start.getLat(), end.getLng(), end.getLat(), maxMoves, restrictedAreas);
+        } finally {
+            if (s.lng.length > RETAINED_NODES) scratch.remove();
+        }
+    }
+
+    private PathResult run(Scratch s, double startLng, double startLat, double endLng, double endLat,
+                           int maxMoves, RestrictedAreaGeometry restrictedAreas) {
+
+        int startNode = s.addNode(startLng, startLat, latticeKey(0.0, 0.0), -1, 0,
+                heuristic(startLng, startLat, endLng, endLat));
+        s.push(startNode);
+
+        int expansions = 0;
+        while (s.heapSize > 0 && expansions < MAX_EXPANSIONS) {
+            int cur = s.pop();
+            s.closed[cur] = true;
+
+            double curLng = s.lng[cur];
+            double curLat = s.lat[cur];
+            if (distance(curLng, curLat, endLng, endLat) <= closeEpsilon) {
+                return buildPath(s, cur);
+            }
+
+            expansions++;
+
+            int tentativeG = s.g[cur] + 1;
+            if (tentativeG > maxMoves) continue;
+
+            for (int k = 0; k < DIRECTIONS; k++) {
+                double nLng = curLng + dLng[k];
+                double nLat = curLat + dLat[k];
+                if (restrictedAreas != null && restrictedAreas.contains(nLng, nLat)) continue;
+
+                long nKey = latticeKey(nLng - startLng, nLat - startLat);
+                int n = s.index.get(nKey);
+                if (n < 0) {
+                    s.push(s.addNode(nLng, nLat, nKey, cur, tentativeG, heuristic(nLng, nLat, endLng, endLat)));
+                } else if (!s.closed[n] && tentativeG < s.g[n]) {
+                    // The node takes the coordinates it is reached with on the better path
+                    s.lng[n] = nLng;
+                    s.lat[n] = nLat;
+                    s.parent[n] = cur;
+                    s.g[n] = tentativeG;
+                    s.f[n] = tentativeG + heuristic(nLng, nLat, endLng, endLat);
+                    s.siftUp(s.heapPos[n]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The straight-line path, if it is provably as short as any search result.
+     *
+     * With the target at distance D along a bearing between directions a and a+1 (in
+     * steps), every point n moves away lies in the regular 16-gon of circumradius n, whose
+     * edge between those directions is n * cos(11.25 deg) from the start. So no path is
+     * shorter than the smallest n with D' <= n * cos(11.25 deg) + 1, where D' is the
+     * target's distance along that edge's normal. Points on the edge are p * a + q * (a+1)
+     * with p + q = n; the one nearest the target is emitted with the a+1 steps spread
+     * evenly (Bresenham style), so the path hugs the straight line.
+     *
+     * It is returned only if its last point is within closeEpsilon of end after exactly
+     * that lower bound of moves, within maxMoves, and none of its moves touches a
+     * restricted area. That is stricter than the search, which only tests each node, so
+     * the fast path never cuts the corner of an area. Otherwise null, and A* decides.
+     */
+    PathResult straightLine(LngLatDTO start, LngLatDTO end, int maxMoves,
+                            RestrictedAreaGeometry restrictedAreas) {
+        double startLng = start.getLng();
+        double startLat = start.getLat();
+        double endLng = end.getLng();
+        double endLat = end.getLat();
+        if (distance(startLng, startLat, endLng, endLat) <= closeEpsilon) {
+            return toResult(new double[] {startLng}, new double[] {startLat});
+        }
+
+        // Target in step units, and the bracketing directions a and b = a+1
+        double tx = (endLng - startLng) / stepSize;
+        double ty = (endLat - startLat) / stepSize;
+        double sector = Math.atan2(ty, tx) / SECTOR;
+        if (sector < 0) sector += DIRECTIONS;
+        int a = (int) sector % DIRECTIONS;
+        int b = (a + 1) % DIRECTIONS;
+
+        // Lower bound on moves (rounded down a little, so it stays a lower bound)
+        double normal = (a + 0.5) * SECTOR;
+        double along = tx * Math.cos(normal) + ty * Math.sin(normal);
+        int moves = (int) Math.max(0, Math.ceil((along - closeEpsilon / stepSize) / EDGE_DISTANCE - 1e-9));
+        if (moves == 0 || moves > maxMoves) return null;
+
+        // Number of b steps putting the end of the edge walk nearest the target
+        double ux = dLng[a] / stepSize, uy = dLat[a] / stepSize;
+        double ex = dLng[b] / stepSize - ux, ey = dLat[b] / stepSize - uy;
+        double q = ((tx - moves * ux) * ex + (ty - moves * uy) * ey) / (ex * ex + ey * ey);
+        int bSteps = (int) Math.max(0, Math.min(moves, Math.round(q)));
+
+        double[] lngs = new double[moves + 1];
+        double[] lats = new double[moves + 1];
+        lngs[0] = startLng;
+        lats[0] = startLat;
+        for (int i = 1; i <= moves; i++) {
+            // Take a b step whenever the rounded share of b steps so far goes up
+            boolean stepB = (2L * i * bSteps + moves) / (2L * moves) > (2L * (i - 1) * bSteps + moves) / (2L * moves);
+            int k = stepB ? b : a;
+            lngs[i] = lngs[i - 1] + dLng[k];
+            lats[i] = lats[i - 1] + dLat[k];
+
+            if (restrictedAreas != null
+                    && restrictedAreas.crossesSegment(lngs[i - 1], lats[i - 1], lngs[i], lats[i])) return null;
+            boolean close = distance(lngs[i], lats[i], endLng, endLat) <= closeEpsilon;
+            if (close != (i == moves)) return null;
+        }
+        return toResult(lngs, lats);
+    }
+
+    /**
+     * Node identity: the offset from the search origin in units of
+     * stepSize / LATTICE_DIVISIONS, rounded, one signed 32-bit int per axis. Every reachable
+     * position is a sum of the 16 unit steps; two sums that land on the same point differ
+     * only by floating-point drift, far below the unit, so they get the same key. 32 bits
+     * per axis cover +-32768 steps.
+     */
+    long latticeKey(double dLngFromOrigin, double dLatFromOrigin) {
+        long x = Math.round(dLngFromOrigin / latticeUnit);
+        long y = Math.round(dLatFromOrigin / latticeUnit);
+        return (x << 32) | (y & 0xFFFF_FFFFL);
+    }
+
+    private PathResult buildPath(Scratch s, int goal) {
+        int length = 0;
+        for (int n = goal; n >= 0; n = s.parent[n]) {
+            length++;
+        }
+        double[] lngs = new double[length];
+        double[] lats = new double[length];
+        for (int n = goal, i = length - 1; n >= 0; n = s.parent[n], i--) {
+            lngs[i] = s.lng[n];
+            lats[i] = s.lat[n];
+        }
+        return toResult(lngs, lats);
+    }
+
+    private static PathResult toResult(double[] lngs, double[] lats) {
+        int length = lngs.length;
+        LngLatDTO[] points = new LngLatDTO[length];
+        for (int i = 0; i < length; i++) {
+            points[i] = new LngLatDTO(lngs[i], lats[i]);
+        }
+
+        double totalDist = 0.0;
+        for (int i = 1; i < length; i++) {
+            totalDist += distance(points[i - 1].getLng(), points[i - 1].getLat(), points[i].getLng(), points[i].getLat());
+        }
+
+        PathResult pr = new PathResult();
+        pr.setPath(new ArrayList<>(Arrays.asList(points)));
+        pr.setMoves(length - 1);
+        pr.setTotalDistance(totalDist);
+        return pr;
+    }
+
+    private double heuristic(double lng, double lat, double endLng, double endLat) {
+        return distance(lng, lat, endLng, endLat) / stepSize;
+    }
+
+    private static double distance(double aLng, double aLat, double bLng, double bLat) {
+        double dx = aLng - bLng;
+        double dy = aLat - bLat;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** Per-thread node arrays, lattice index and open heap. */
+    private static final class Scratch {
+
+        double[] lng = new double[1024];
+        double[] lat = new double[1024];
+        double[] f = new double[1024];
+        int[] g = new int[1024];
+        int[] parent = new int[1024];
+        int[] heapPos = new int[1024];
+        boolean[] closed = new boolean[1024];
+        int nodeCount;
+
+        int[] heap = new int[1024];
+        int heapSize;
+
+        final LongIntHashMap index = new LongIntHashMap(1024);
+
+        void reset() {
+            Arrays.fill(closed, 0, nodeCount, false);
+            nodeCount = 0;
+            heapSize = 0;
+            index.clear();
+        }
+
+        int addNode(double nodeLng, double nodeLat, long key, int parentNode, int gScore, double hScore) {
+            if (nodeCount == lng.length) grow();
+            int n = nodeCount++;
+            lng[n] = nodeLng;
+            lat[n] = nodeLat;
+            g[n] = gScore;
+            f[n] = gScore + hScore;
+            parent[n] = parentNode;
+            index.putIfAbsent(key, n);
+            return n;
+        }
+
+        void push(int node) {
+            if (heapSize == heap.length) heap = Arrays.copyOf(heap, heap.length * 2);
+            heap[heapSize] = node;
+            heapPos[node] = heapSize;
+            heapSize++;
+            siftUp(heapSize - 1);
+        }
+
+        int pop() {
+            int top = heap[0];
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPos[heap[0]] = 0;
+                siftDown(0);
+            }
+            heapPos[top] = -1;
+            return top;
+        }
+
+        void siftUp(int pos) {
+            int node = heap[pos];
+            while (pos > 0) {
+                int parentPos = (pos - 1) >>> 1;
+                int other = heap[parentPos];
+                if (!before(node, other)) break;
+                heap[pos] = other;
+                heapPos[other] = pos;
+                pos = parentPos;
+            }
+            heap[pos] = node;
+            heapPos[node] = pos;
+        }
+
+        private void siftDown(int pos) {
+            int node = heap[pos];
+            int half = heapSize >>> 1;
+            while (pos < half) {
+                int child = 2 * pos + 1;
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child])) child++;
+                if (!before(heap[child], node)) break;
+                heap[pos] = heap[child];
+                heapPos[heap[pos]] = pos;
+                pos = child;
+            }
+            heap[pos] = node;
+            heapPos[node] = pos;
+        }
+
+        // Lower f first; equal f in creation order, so searches are deterministic
+        private boolean before(int a, int b) {
+            return f[a] < f[b] || (f[a] == f[b] && a < b);
+        }
+
+        private void grow() {
+            int capacity = lng.length * 2;
+            lng = Arrays.copyOf(lng, capacity);
+            lat = Arrays.copyOf(lat, capacity);
+            f = Arrays.copyOf(f, capacity);
+            g = Arrays.copyOf(g, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            heapPos = Arrays.copyOf(heapPos, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+        }
+    }
+}
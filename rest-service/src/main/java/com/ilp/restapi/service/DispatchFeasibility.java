@@ -0,0 +1,136 @@
+package com.ilp.restapi.service;
+
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.MedDispatchRecDTO;
+import com.ilp.restapi.data.RequirementsDTO;
+import com.ilp.restapi.world.DroneAttributeIndex;
+import com.ilp.restapi.world.WorldModel;
+
+/**
+ * Bulk form of the per-drone dispatch checks behind {@code queryAvailableDrones}.
+ *
+ * Each dispatch narrows one bitset over the drone index: capability, capacity and
+ * cooling/heating come straight from the attribute index as bitsets, availability is one
+ * bitset per distinct dispatch time (shared between dispatches), and the cost estimate
+ * reuses the base-to-delivery distance per service point. Availability and the cost
+ * estimate are decided once per drone equivalence class and copied to its other members.
+ * Every step only looks at the drones still feasible, so the first member of a class is
+ * evaluated exactly where the per-drone loop with its short-circuits would evaluate it.
+ */
+final class DispatchFeasibility {
+
+    private static final byte FEASIBLE = 1;
+    private static final byte INFEASIBLE = 2;
+
+    private final WorldModel world;
+    private final DroneAttributeIndex index;
+    private final double stepSize;
+    private final Map<Integer, BitSet> availableAt = new HashMap<>();
+
+    DispatchFeasibility(WorldModel world, double stepSize) {
+        this.world = world;
+        this.index = world.attributeIndex();
+        this.stepSize = stepSize;
+    }
+
+    /** Drones that can take every one of the dispatches. */
+    BitSet feasibleForAll(List<MedDispatchRecDTO> dispatches) {
+        BitSet feasible = new BitSet(world.droneCount());
+        feasible.set(0, world.droneCount());
+        for (MedDispatchRecDTO rec : dispatches) {
+            if (feasible.isEmpty()) break;
+            narrow(feasible, rec);
+        }
+        return feasible;
+    }
+
+    private void narrow(BitSet candidates, MedDispatchRecDTO rec) {
+        // ---- Requirements (matchesDispatch) ----
+        RequirementsDTO req = rec.getRequirements();
+        candidates.and(index.withCapability());
+        if (req != null) {
+            if (req.getCapacity() != null) {
+                BitSet tooSmall = index.capacityBelow(req.getCapacity());
+                if (tooSmall != null) {
+                    candidates.andNot(tooSmall);
+                } else {
+                    double needed = req.getCapacity();
+                    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                        if (world.drone(i).getCapability().getCapacity() < needed) candidates.clear(i);
+                    }
+                }
+            }
+            if (Boolean.TRUE.equals(req.getCooling())) candidates.and(index.cooling());
+            if (Boolean.TRUE.equals(req.getHeating())) candidates.and(index.heating());
+        }
+        if (candidates.isEmpty()) return;
+        candidates.and(availableAt(rec));
+        if (candidates.isEmpty()) return;
+
+        // ---- Cost estimate ----
+        // Round trip at straight-line distance; no maxCost means no cost constraint:
+        //   moves = (2 * distance(base, delivery)) / STEP_SIZE
+        //   cost  = moves * costPerMove + costInitial + costFinal
+        if (rec.getDelivery() == null) {
+            candidates.clear();
+            return;
+        }
+        Double maxCost = req == null ? null : req.getMaxCost();
+        Map<LngLatDTO, Double> movesFromBase = new IdentityHashMap<>();
+        byte[] verdicts = new byte[world.classCount()];   // 0 = not yet decided
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            int c = world.droneClass(i);
+            if (verdicts[c] == 0) {
+                verdicts[c] = withinCost(i, rec.getDelivery(), maxCost, movesFromBase) ? FEASIBLE : INFEASIBLE;
+            }
+            if (verdicts[c] == INFEASIBLE) candidates.clear(i);
+        }
+    }
+
+    private boolean withinCost(int droneIndex, LngLatDTO delivery, Double maxCost, Map<LngLatDTO, Double> movesFromBase) {
+        LngLatDTO base = world.base(droneIndex);
+        if (base == null) return false;
+        if (maxCost == null) return true;
+
+        double estMoves = movesFromBase.computeIfAbsent(base, b -> 2 * distance(b, delivery) / stepSize);
+        CapabilityDTO cap = world.drone(droneIndex).getCapability();
+        double estCost = estMoves * cap.getCostPerMove() + cap.getCostInitial() + cap.getCostFinal();
+        return estCost <= maxCost;
+    }
+
+    // One bitset per distinct (second of week, whole second) across the request's dispatches
+    private BitSet availableAt(MedDispatchRecDTO rec) {
+        if (rec.getDate() == null || rec.getTime() == null) return new BitSet();
+        LocalTime time = rec.getTime();
+        int second = WeeklyWindows.secondOfWeek(rec.getDate().getDayOfWeek(), time);
+        int key = 2 * second + (time.getNano() == 0 ? 1 : 0);
+
+        return availableAt.computeIfAbsent(key, k -> {
+            boolean[] classAvailable = new boolean[world.classCount()];
+            for (int c = 0; c < classAvailable.length; c++) {
+                int[] windows = world.windows(world.classRepresentative(c));
+                classAvailable[c] = WeeklyWindows.contains(windows, rec.getDate().getDayOfWeek(), time);
+            }
+            BitSet available = new BitSet(world.droneCount());
+            for (int i = 0; i < world.droneCount(); i++) {
+                if (classAvailable[world.droneClass(i)]) available.set(i);
+            }
+            return available;
+        });
+    }
+
+    private static double distance(LngLatDTO a, LngLatDTO b) {
+        double dx = a.getLng() - b.getLng();
+        double dy = a.getLat() - b.getLat();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
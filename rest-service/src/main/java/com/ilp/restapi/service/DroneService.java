@@ -3,43 +3,56 @@ package com.ilp.restapi.service;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
-import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.ilp.restapi.data.AvailabilitySlotDTO;
+import com.ilp.restapi.client.WeeklyWindows;
 import com.ilp.restapi.data.CalcDeliveryPathResponseDTO;
 import com.ilp.restapi.data.CapabilityDTO;
 import com.ilp.restapi.data.PathResult;
 import com.ilp.restapi.data.DeliveryFlightPathDTO;
-import com.ilp.restapi.data.DroneAvailabilityDTO;
 import com.ilp.restapi.data.DroneDTO;
 import com.ilp.restapi.data.DronePathDTO;
 import com.ilp.restapi.data.LngLatDTO;
 import com.ilp.restapi.data.MedDispatchRecDTO;
 import com.ilp.restapi.data.QueryConditionDTO;
 import com.ilp.restapi.data.RequirementsDTO;
-import com.ilp.restapi.data.RestrictedAreaDTO;
-import com.ilp.restapi.data.ServicePointAvailabilityDTO;
-import com.ilp.restapi.data.ServicePointDTO;
-import com.ilp.restapi.client.IlpClient;
+import com.ilp.restapi.query.CompiledQuery;
+import com.ilp.restapi.query.QueryCompiler;
+import com.ilp.restapi.query.QueryCursor;
+import com.ilp.restapi.query.QueryOrder;
+import com.ilp.restapi.query.QueryPage;
+import com.ilp.restapi.query.QueryResultCache;
+import com.ilp.restapi.world.RestrictedAreaGeometry;
+import com.ilp.restapi.world.ServicePointAvailability;
+import com.ilp.restapi.world.ServicePointGroup;
+import com.ilp.restapi.world.WorldModel;
+import com.ilp.restapi.world.WorldModelHolder;
 
 @Service
 public class DroneService {
-  private final IlpClient ilpClient;
+  private final WorldModelHolder worlds;
+  private final QueryCompiler queries;
+  private final QueryResultCache queryResults;
+  private final LegPathCache legPaths;
+  private final AStarSearch aStar = new AStarSearch(STEP_SIZE, CLOSE_EPSILON);
 
-  public DroneService(IlpClient ilpClient) {
-      this.ilpClient = ilpClient;
+  public DroneService(WorldModelHolder worlds, QueryCompiler queries, QueryResultCache queryResults,
+                      LegPathCache legPaths) {
+      this.worlds = worlds;
+      this.queries = queries;
+      this.queryResults = queryResults;
+      this.legPaths = legPaths;
   }
 
-  private static final double STEP_SIZE = 0.00015;
+  static final double STEP_SIZE = 0.00015;
   private static final double CLOSE_EPSILON = STEP_SIZE; // “close enough” to target
   private static final int MAX_MOVE_CAP = 20000; // safety guard against infinte looping
 
@@ -52,26 +65,29 @@ public class DroneService {
       if (!isBooleanLike(stateParam)) {
           return List.of();
       }
-      boolean desired = Boolean.parseBoolean(stateParam.toLowerCase(Locale.ROOT));
-
-      List<DroneDTO> drones = ilpClient.fetchDrones();
-
-      return drones.stream()
-              .filter(d -> {
-                  CapabilityDTO cap = d.getCapability();
-                  return cap != null && cap.isCooling() == desired;
-              })
-              .map(DroneDTO::getId)
-              .collect(Collectors.toList());
+      return runQuery(queries.compile("cooling", "=", stateParam.trim()));
   }
 
   public DroneDTO findDroneById(int id) {
-      List<DroneDTO> drones = ilpClient.fetchDrones();
+      return worlds.current().droneById(id);   // controller decides whether to return 404
+  }
 
-      return drones.stream()
-              .filter(d -> d.getId() == id)
-              .findFirst()
-              .orElse(null);   // controller decides whether to return 404
+  /**
+   * Details for a batch of ids, in request order, all from the same snapshot.
+   * - Unknown (or null) ids are left out rather than failing the whole batch.
+   * - Each id is one primitive hash lookup.
+   */
+  public List<DroneDTO> findDronesByIds(List<Integer> ids) {
+      WorldModel world = worlds.current();
+      List<DroneDTO> drones = new ArrayList<>(ids.size());
+      for (Integer id : ids) {
+          if (id == null) continue;
+          DroneDTO drone = world.droneById(id);
+          if (drone != null) {
+              drones.add(drone);
+          }
+      }
+      return drones;
   }
 
   private boolean isBooleanLike(String s) {
@@ -81,263 +97,104 @@ public class DroneService {
   }
 
   public List<Integer> queryAsPath(String attribute, String value) {
-      List<DroneDTO> drones = ilpClient.fetchDrones();
-
-      return drones.stream()
-              .filter(d -> matchAttribute(d, attribute, "=", value))
-              .map(DroneDTO::getId)
-              .toList();
+      return runQuery(queries.compile(attribute, "=", value));
   }
 
   public List<Integer> query(List<QueryConditionDTO> conditions) {
-      List<DroneDTO> drones = ilpClient.fetchDrones();
-
-      // If no conditions, return all drones
-      if (conditions == null || conditions.isEmpty()) {
-          return drones.stream()
-                  .map(DroneDTO::getId)
-                  .toList();
-      }
-
-      return drones.stream()
-              .filter(d -> matchesAllConditions(d, conditions))
-              .map(DroneDTO::getId)
-              .toList();
+      // No conditions matches every drone
+      return runQuery(queries.compile(conditions));
   }
 
-  private boolean matchesAllConditions(DroneDTO drone, List<QueryConditionDTO> conditions) {
-      return conditions.stream().allMatch(cond ->
-              matchAttribute(
-                      drone,
-                      cond.getAttribute(),
-                      cond.getOperator(),
-                      cond.getValue()
-              )
-      );
-  }
-
-  private boolean matchAttribute(DroneDTO drone, String attribute, String operator, String value) {
-      if (drone == null || attribute == null || operator == null || value == null) {
-          return false;
-      }
-
-      String attr = attribute.trim().toLowerCase(Locale.ROOT);
-      String op = operator.trim();
-      CapabilityDTO cap = drone.getCapability();
-
-      switch (attr) {
-          // ----------------- TOP LEVEL FIELDS -----------------
-          case "id": {
-              try {
-                  int v = Integer.parseInt(value);
-                  return compareInts(drone.getId(), v, op);
-              } catch (NumberFormatException e) {
-                  return false;
-              }
+  /**
+   * One page of the query, sorted and cut by the sorted column index instead of in full.
+   * - orderBy is a numeric attribute (fleet order if absent), order is asc/desc.
+   * - limit caps the page; without it the rest of the result is returned.
+   * - cursor is the nextCursor of the previous page, valid for the same order and
+   *   reference data version (410 once the data has changed).
+   */
+  public QueryPage queryPage(List<QueryConditionDTO> conditions,
+                             String orderBy, String direction, Integer limit, String cursor) {
+      QueryOrder order = QueryOrder.parse(orderBy, direction);
+      if (order == null) {
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                  "orderBy must be a numeric drone attribute and order asc or desc");
+      }
+      if (limit != null && limit < 1) {
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+      }
+
+      WorldModel world = worlds.current();
+      QueryCursor after = null;
+      if (cursor != null) {
+          after = QueryCursor.decode(cursor, order);
+          if (after == null) {
+              throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor does not belong to this query order");
           }
+          if (after.version() != world.version() || after.droneIndex() >= world.droneCount()) {
+              throw new ResponseStatusException(HttpStatus.GONE, "Reference data changed since the cursor was issued");
+          }
+      }
 
-          case "name":
-              return compareStrings(drone.getName(), value, op);
-
-          // ----------------- CAPABILITY FIELDS -----------------
-          case "cooling":
-              return cap != null && compareBooleans(cap.isCooling(), value, op);
-
-          case "heating":
-              return cap != null && compareBooleans(cap.isHeating(), value, op);
-
-          case "capacity":
-              if (cap == null) return false;
-              try {
-                  double v = Double.parseDouble(value);
-                  return compareDoubles(cap.getCapacity(), v, op);
-              } catch (NumberFormatException e) {
-                  return false;
-              }
-
-          case "maxmoves":
-              if (cap == null) return false;
-              try {
-                  int v = Integer.parseInt(value);
-                  return compareInts(cap.getMaxMoves(), v, op);
-              } catch (NumberFormatException e) {
-                  return false;
-              }
-
-          case "costpermove":
-              if (cap == null) return false;
-              try {
-                  double v = Double.parseDouble(value);
-                  return compareDoubles(cap.getCostPerMove(), v, op);
-              } catch (NumberFormatException e) {
-                  return false;
-              }
-
-          case "costinitial":
-              if (cap == null) return false;
-              try {
-                  double v = Double.parseDouble(value);
-                  return compareDoubles(cap.getCostInitial(), v, op);
-              } catch (NumberFormatException e) {
-                  return false;
-              }
-
-          case "costfinal":
-              if (cap == null) return false;
-              try {
-                  double v = Double.parseDouble(value);
-                  return compareDoubles(cap.getCostFinal(), v, op);
-              } catch (NumberFormatException e) {
-                  return false;
-              }
-
-          default:
-              // Unknown attribute -> no match
-              return false;
+      CompiledQuery compiled = queries.compile(conditions);
+      if (compiled.isUnsatisfiable()) {
+          return new QueryPage(List.of(), null);
       }
-  }
 
-  private boolean compareInts(int field, int value, String op) {
-      return switch (op) {
-          case "=" -> field == value;
-          case "!=" -> field != value;
-          case "<" -> field < value;
-          case ">" -> field > value;
-          default -> false;
-      };
-  }
+      // Ask for one extra drone to know whether there is a next page
+      BitSet hits = world.attributeIndex().select(compiled);
+      int[] page = world.attributeIndex().page(hits, order, after,
+              limit == null ? Integer.MAX_VALUE : Math.min(limit, Integer.MAX_VALUE - 1) + 1);
+      int size = limit == null ? page.length : Math.min(page.length, limit);
 
-  private boolean compareDoubles(double field, double value, String op) {
-      return switch (op) {
-          case "=" -> Double.compare(field, value) == 0;
-          case "!=" -> Double.compare(field, value) != 0;
-          case "<" -> field < value;
-          case ">" -> field > value;
-          default -> false;
-      };
+      List<Integer> ids = new ArrayList<>(size);
+      for (int k = 0; k < size; k++) {
+          ids.add(world.drone(page[k]).getId());
+      }
+      String next = page.length > size
+              ? world.attributeIndex().cursorAt(order, page[size - 1], world.version()).encode(order)
+              : null;
+      return new QueryPage(ids, next);
   }
 
-  private boolean compareBooleans(boolean field, String value, String op) {
-      boolean v;
-      if ("true".equalsIgnoreCase(value)) {
-          v = true;
-      } else if ("false".equalsIgnoreCase(value)) {
-          v = false;
-      } else {
-          return false; // not a valid boolean
+  // Conditions are compiled (and cached) once; an impossible condition means no drone can match.
+  // Answers are cached per reference data version, since they only change with the fleet.
+  private List<Integer> runQuery(CompiledQuery compiled) {
+      if (compiled.isUnsatisfiable()) {
+          return List.of();
       }
-
-      return switch (op) {
-          case "=" -> field == v;
-          case "!=" -> field != v;
-          default -> false; // < and > don't make sense for booleans
-      };
+      WorldModel world = worlds.current();
+      return queryResults.get(compiled, world.version(), () -> evaluate(world, compiled));
   }
 
-  private boolean compareStrings(String field, String value, String op) {
-      // Safely handle nulls
-      String f = field == null ? null : field.trim();
-      String v = value == null ? null : value.trim();
-
-      return switch (op) {
-          case "=" -> f != null && v != null && f.equalsIgnoreCase(v);
-          case "!=" -> {
-              if (f == null && v == null) yield false;
-              if (f == null || v == null) yield true;
-              yield !f.equalsIgnoreCase(v);
-          }
-          default -> false; // No < or > for strings in this spec
-      };
+  // Resolved against the columnar index; set bits come back in fleet order
+  private static List<Integer> evaluate(WorldModel world, CompiledQuery compiled) {
+      BitSet hits = world.attributeIndex().select(compiled);
+      List<Integer> ids = new ArrayList<>(hits.cardinality());
+      for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+          ids.add(world.drone(i).getId());
+      }
+      return ids;
   }
 
   public List<Integer> queryAvailableDrones(List<MedDispatchRecDTO> dispatches) {
-      List<DroneDTO> drones = ilpClient.fetchDrones();
-      List<ServicePointAvailabilityDTO> availabilityData = ilpClient.fetchAvailability();
-      List<ServicePointDTO> servicePoints = ilpClient.fetchServicePoints();
-
-      // droneId -> availability slots
-      Map<Integer, List<AvailabilitySlotDTO>> availabilityByDroneId =
-              buildAvailabilityMap(availabilityData);
-
-      // servicePointId -> location
-      Map<Integer, LngLatDTO> servicePointLocationById =
-              servicePoints.stream()
-                      .filter(sp -> sp.getId() != null && sp.getLocation() != null)
-                      .collect(Collectors.toMap(
-                              ServicePointDTO::getId,
-                              ServicePointDTO::getLocation
-                      ));
-
-      // droneId -> dispatch/service point location
-      Map<Integer, LngLatDTO> dispatchPointByDroneId =
-              buildDispatchPointMap(availabilityData, servicePointLocationById);
+      WorldModel world = worlds.current();
 
       if (dispatches == null || dispatches.isEmpty()) {
           // up to you: return all drones or []
-          return drones.stream()
+          return world.drones().stream()
                   .map(DroneDTO::getId)
                   .toList();
       }
 
-      return drones.stream()
-              .filter(drone -> canHandleAllDispatches(
-                      drone,
-                      dispatches,
-                      availabilityByDroneId.get(drone.getId()),
-                      dispatchPointByDroneId.get(drone.getId())
-              ))
-              .map(DroneDTO::getId)
-              .toList();
-  }
-  
-  private boolean canHandleAllDispatches(DroneDTO drone,
-                                         List<MedDispatchRecDTO> dispatches,
-                                         List<AvailabilitySlotDTO> slots,
-                                         LngLatDTO dispatchPoint) {
-      return dispatches.stream().allMatch(rec ->
-            matchesDispatch(drone, rec, slots, dispatchPoint, dispatchPoint)
-            && canAffordDispatch(drone, rec, dispatchPoint));
+      // Every dispatch narrows one bitset over the drone index; set bits come back in fleet order
+      BitSet feasible = new DispatchFeasibility(world, STEP_SIZE).feasibleForAll(dispatches);
+      List<Integer> ids = new ArrayList<>(feasible.cardinality());
+      for (int i = feasible.nextSetBit(0); i >= 0; i = feasible.nextSetBit(i + 1)) {
+          ids.add(world.drone(i).getId());
+      }
+      return ids;
   }
 
-  /**
- * Estimate dispatch cost using straight-line distance and filter out drones
- * whose estimated cost exceeds requirements.maxCost.
- *
- * Cost model (round trip):
- *   moves ≈ (2 * distance(base, delivery)) / STEP_SIZE
- *   cost  = moves * costPerMove + costInitial + costFinal
- *
- * If maxCost is null -> no cost constraint.
- */
-private boolean canAffordDispatch(DroneDTO drone,
-                                  MedDispatchRecDTO rec,
-                                  LngLatDTO base) {
-
-    if (drone == null || rec == null || base == null || rec.getDelivery() == null) {
-        return false;
-    }
-
-    RequirementsDTO req = rec.getRequirements();
-    if (req == null || req.getMaxCost() == null) {
-        return true; // no maxCost constraint
-    }
-
-    CapabilityDTO cap = drone.getCapability();
-    if (cap == null) return false;
-
-    double oneWayDist = euclideanDistance(base, rec.getDelivery());
-    double roundTripDist = 2 * oneWayDist;
-
-    double estMoves = roundTripDist / STEP_SIZE;
-
-    double estCost =
-            estMoves * cap.getCostPerMove()
-            + cap.getCostInitial()
-            + cap.getCostFinal();
-
-    return estCost <= req.getMaxCost();
-}
-
 public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> dispatches) {
 
     CalcDeliveryPathResponseDTO resp = new CalcDeliveryPathResponseDTO();
@@ -349,32 +206,18 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
         return resp;
     }
 
-    // Fetch environment data once
-    List<DroneDTO> drones = ilpClient.fetchDrones();
-    Map<Integer, DroneDTO> droneById = drones.stream()
-            .collect(Collectors.toMap(DroneDTO::getId, d -> d));
-
-    List<ServicePointAvailabilityDTO> availabilityData = ilpClient.fetchAvailability();
-    List<ServicePointDTO> servicePoints = ilpClient.fetchServicePoints();
-    List<RestrictedAreaDTO> restrictedAreas = ilpClient.fetchRestrictedAreas();
-
-    // droneId -> availability slots
-    Map<Integer, List<AvailabilitySlotDTO>> availabilityByDroneId =
-            buildAvailabilityMap(availabilityData);
-
-    // servicePointId -> location
-    Map<Integer, LngLatDTO> servicePointLocationById =
-            servicePoints.stream()
-                    .filter(sp -> sp.getId() != null && sp.getLocation() != null)
-                    .collect(Collectors.toMap(
-                            ServicePointDTO::getId,
-                            ServicePointDTO::getLocation
-                    ));
+    // Read the precompiled environment once for the whole request
+    WorldModel world = worlds.current();
+    if (!world.isAvailable()) {
+        // Never plan without knowing the no-fly zones
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Restricted areas unavailable");
+    }
+    RestrictedAreaGeometry restrictedAreas = world.restrictedAreas();
 
       // Group dispatches by nearest feasible service point
       Map<Integer, List<MedDispatchRecDTO>> byServicePoint = new HashMap<>();
       for (MedDispatchRecDTO rec : dispatches) {
-          Integer spId = findBestServicePoint(rec, availabilityData, availabilityByDroneId, droneById, servicePointLocationById);
+          Integer spId = findBestServicePoint(rec, world);
           if (spId == null) continue; // skip if no feasible service point
           byServicePoint.computeIfAbsent(spId, k -> new ArrayList<>()).add(rec);
       }
@@ -387,23 +230,35 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
           List<MedDispatchRecDTO> group = entry.getValue();
           if (group.isEmpty()) continue;
 
-          LngLatDTO base = servicePointLocationById.get(spId);
+          LngLatDTO base = world.servicePointLocation(spId);
           if (base == null) continue;
 
           // Drones based at this service point
-          List<Integer> droneIdsAtSp = dronesAtServicePoint(spId, availabilityData);
+          int[] droneIndicesAtSp = world.dronesAtServicePoint(spId);
           List<Integer> unassigned = new ArrayList<>(group.stream().map(MedDispatchRecDTO::getId).toList());
 
+          // Classes that found no route, keyed to the number of unassigned dispatches at the time.
+          // Dispatches only ever leave the list, so an unchanged size means unchanged input and
+          // the other members of the class find no route either.
+          Map<Integer, Integer> noRouteAt = new HashMap<>();
+
           while (!unassigned.isEmpty()) {
               RouteResult bestRoute = null;
               int chosenDroneId = -1;
 
-              for (Integer droneId : droneIdsAtSp) {
-                  DroneDTO drone = droneById.get(droneId);
-                  if (drone == null) continue;
+              for (int droneIndex : droneIndicesAtSp) {
+                  DroneDTO drone = world.drone(droneIndex);
+                  int droneId = drone.getId();
+
+                  int droneClass = world.droneClass(droneIndex);
+                  int remaining = unassigned.size();
+                  if (noRouteAt.getOrDefault(droneClass, -1) == remaining) continue;
 
-                  List<AvailabilitySlotDTO> slots = availabilityByDroneId.get(droneId);
-                  RouteResult route = buildRouteForDrone(drone, base, slots, group, unassigned, restrictedAreas);
+                  int[] windows = world.windows(droneIndex);
+                  RouteResult route = buildRouteForDrone(drone, base, windows, group, unassigned, restrictedAreas, world.areasVersion());
+                  if (route == null) {
+                      noRouteAt.put(droneClass, remaining);
+                  }
 
                   if (route != null && !route.deliveryPaths.isEmpty()) {
                       if (bestRoute == null || route.totalMoves < bestRoute.totalMoves) {
@@ -471,32 +326,28 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
   // -------------------- ROUTE BUILDING (CHAINING) --------------------
 
-  private Integer findBestServicePoint(MedDispatchRecDTO rec,
-                                       List<ServicePointAvailabilityDTO> availabilityData,
-                                       Map<Integer, List<AvailabilitySlotDTO>> availabilityByDroneId,
-                                       Map<Integer, DroneDTO> droneById,
-                                       Map<Integer, LngLatDTO> servicePointLocationById) {
+  private Integer findBestServicePoint(MedDispatchRecDTO rec, WorldModel world) {
 
       if (rec == null || rec.getDelivery() == null) return null;
 
       double bestDist = Double.MAX_VALUE;
       Integer bestSp = null;
 
-      for (ServicePointAvailabilityDTO sp : availabilityData) {
-          LngLatDTO spLoc = servicePointLocationById.get(sp.getServicePointId());
-          if (spLoc == null || sp.getDrones() == null) continue;
+      for (ServicePointGroup sp : world.servicePointGroups()) {
+          LngLatDTO spLoc = sp.getLocation();
 
           boolean anyFeasible = false;
-          for (DroneAvailabilityDTO da : sp.getDrones()) {
-              Integer droneId = parseDroneId(da.getId());
-              if (droneId == null) continue;
-              DroneDTO drone = droneById.get(droneId);
-              if (drone == null) continue;
-
-              List<AvailabilitySlotDTO> slots = availabilityByDroneId.get(droneId);
-              if (matchesDispatch(drone, rec, slots, spLoc, spLoc)) {
-                  anyFeasible = true;
-                  break;
+          ServicePointAvailability availability = sp.getAvailability();
+          if (availability != null && rec.getDate() != null && rec.getTime() != null
+                  && ServicePointAvailability.isWholeMinute(rec.getTime())) {
+              anyFeasible = availability.anyCapable(rec.getRequirements(), rec.getDate().getDayOfWeek(), rec.getTime());
+          } else {
+              // Members of a class match alike, so one drone per class decides
+              for (int droneIndex : sp.getClassDroneIndices()) {
+                  if (matchesDispatch(world.drone(droneIndex), rec, world.windows(droneIndex), spLoc, spLoc)) {
+                      anyFeasible = true;
+                      break;
+                  }
               }
           }
 
@@ -511,39 +362,19 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
       return bestSp;
   }
 
-  private List<Integer> dronesAtServicePoint(int servicePointId, List<ServicePointAvailabilityDTO> availabilityData) {
-      List<Integer> ids = new ArrayList<>();
-      for (ServicePointAvailabilityDTO sp : availabilityData) {
-          if (sp.getServicePointId() != servicePointId || sp.getDrones() == null) continue;
-          for (DroneAvailabilityDTO da : sp.getDrones()) {
-              Integer id = parseDroneId(da.getId());
-              if (id != null) {
-                  ids.add(id);
-              }
-          }
-      }
-      return ids;
-  }
-
-  private Integer parseDroneId(String raw) {
-      if (raw == null) return null;
-      try {
-          return Integer.parseInt(raw);
-      } catch (NumberFormatException ex) {
-          return null;
-      }
-  }
-
   private RouteResult buildRouteForDrone(DroneDTO drone,
                                         LngLatDTO base,
-                                        List<AvailabilitySlotDTO> slots,
+                                        int[] windows,
                                         List<MedDispatchRecDTO> allRecsForServicePoint,
                                         List<Integer> unassignedIds,
-                                        List<RestrictedAreaDTO> restrictedAreas) {
+                                        RestrictedAreaGeometry restrictedAreas,
+                                        long areasVersion) {
 
       CapabilityDTO cap = drone.getCapability();
       if (cap == null) return null;
 
+      // Only a candidate route: the caller removes the ids of the route it picks
+      List<Integer> pending = new ArrayList<>(unassignedIds);
       int maxMoves = resolveMaxMoves(cap);
       LngLatDTO current = copyPoint(base);
 
@@ -559,14 +390,18 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
           for (MedDispatchRecDTO rec : allRecsForServicePoint) {
               if (rec == null || rec.getDelivery() == null) continue;
-              if (!unassignedIds.contains(rec.getId())) continue;
+              if (!pending.contains(rec.getId())) continue;
 
-              if (!matchesDispatch(drone, rec, slots, base, current)) continue;
+              if (!matchesDispatch(drone, rec, windows, base, current)) continue;
 
-              PathResult toDelivery = computePath(current, rec.getDelivery(), cap, restrictedAreas);
+              PathResult toDelivery = legPath(current, rec.getDelivery(), cap, restrictedAreas, areasVersion);
               if (toDelivery.getMoves() > maxMoves) continue;
 
-            PathResult backHome = computePath(rec.getDelivery(), base, cap, restrictedAreas);
+            // No return leg is shorter than the straight line, so skip its search when even
+            // that cannot fit
+            if (movesUsed + toDelivery.getMoves() + minMoves(rec.getDelivery(), base) > maxMoves) continue;
+
+            PathResult backHome = legPath(rec.getDelivery(), base, cap, restrictedAreas, areasVersion);
 
             RequirementsDTO req = rec.getRequirements();
             if (req != null && req.getMaxCost() != null) {
@@ -598,7 +433,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
           dpath.setFlightPath(segPath);
           deliveryPaths.add(dpath);
           assignedRecIds.add(best.getId());
-          unassignedIds.remove(best.getId());
+          pending.remove(best.getId());
 
           movesUsed += bestPath.getMoves();
           variableCost += bestPath.getMoves() * cap.getCostPerMove();
@@ -611,7 +446,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
       if (deliveryPaths.isEmpty()) return null;
 
       // Return leg
-      PathResult backPath = computePath(current, base, cap, restrictedAreas);
+      PathResult backPath = legPath(current, base, cap, restrictedAreas, areasVersion);
       if (backPath.getMoves() > maxMoves || movesUsed + backPath.getMoves() > maxMoves) {
           return null; // infeasible to return
       }
@@ -645,7 +480,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
   protected PathResult computeMovesOnly(LngLatDTO start,
                                       LngLatDTO end,
                                       CapabilityDTO capability,
-                                      List<RestrictedAreaDTO> restrictedAreas) {
+                                      RestrictedAreaGeometry restrictedAreas) {
 
       PathResult result = new PathResult();
       result.setPath(new ArrayList<>()); // keep empty by contract
@@ -689,10 +524,23 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
   // -------------------- FULL PATH COMPUTATION --------------------
 
+  /** computePath through the shared leg cache; the path must not be modified. */
+  private PathResult legPath(LngLatDTO start,
+                             LngLatDTO end,
+                             CapabilityDTO capability,
+                             RestrictedAreaGeometry restrictedAreas,
+                             long areasVersion) {
+      if (start == null || end == null) {
+          return computePath(start, end, capability, restrictedAreas);
+      }
+      return legPaths.get(start, end, resolveMaxMoves(capability), areasVersion,
+              () -> computePath(start, end, capability, restrictedAreas));
+  }
+
   protected PathResult computePath(LngLatDTO start,
                                    LngLatDTO end,
                                    CapabilityDTO capability,
-                                   List<RestrictedAreaDTO> restrictedAreas) {
+                                   RestrictedAreaGeometry restrictedAreas) {
 
       PathResult result = new PathResult();
       List<LngLatDTO> path = new ArrayList<>();
@@ -739,132 +587,8 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
   private PathResult computePathAStar(LngLatDTO start,
                                       LngLatDTO end,
                                       CapabilityDTO capability,
-                                      List<RestrictedAreaDTO> restrictedAreas) {
-
-      int maxMoves = resolveMaxMoves(capability);
-      String startKey = key(start);
-     
-      PriorityQueue<Node> open = new PriorityQueue<>((a, b) -> Double.compare(a.fScore, b.fScore));
-      Map<String, Node> nodes = new HashMap<>();
-      Map<String, String> cameFrom = new HashMap<>();
-      Set<String> closed = new HashSet<>();
-
-      Node startNode = new Node(start, 0, heuristic(start, end));
-      nodes.put(startKey, startNode);
-      open.add(startNode);
-
-      int expansions = 0;
-      int maxExpansions = 50000;
-
-      while (!open.isEmpty() && expansions < maxExpansions) {
-          Node current = open.poll();
-          String curKey = key(current.point);
-          if (closed.contains(curKey)) continue;
-          closed.add(curKey);
-
-          if (distance(current.point, end) <= CLOSE_EPSILON) {
-              return buildPathFromCameFrom(cameFrom, current.point, startKey, end);
-          }
-
-          expansions++;
-
-          for (LngLatDTO neighbor : neighbors(current.point, end, restrictedAreas)) {
-              String nKey = key(neighbor);
-              if (closed.contains(nKey)) continue;
-
-              int tentativeG = current.gScore + 1;
-              if (tentativeG > maxMoves) continue;
-
-              Node existing = nodes.get(nKey);
-              if (existing == null || tentativeG < existing.gScore) {
-                  Node n = new Node(neighbor, tentativeG, heuristic(neighbor, end));
-                  nodes.put(nKey, n);
-                  cameFrom.put(nKey, curKey);
-                  open.add(n);
-              }
-          }
-      }
-      return null;
-  }
-
-
-
-  private List<LngLatDTO> neighbors(LngLatDTO point, LngLatDTO target, List<RestrictedAreaDTO> restrictedAreas) {
-      double[] offsets = {
-              0, 22.5, 45, 67.5, 90, 112.5, 135, 157.5,
-              180, 202.5, 225, 247.5, 270, 292.5, 315, 337.5
-      };
-
-      List<LngLatDTO> res = new ArrayList<>();
-
-      for (double off : offsets) {
-          LngLatDTO nxt = nextPosition(point, off);
-          if (isInAnyRestrictedArea(nxt, restrictedAreas)) continue;
-          res.add(nxt);
-      }
-      return res;
-  }
-
-  private double heuristic(LngLatDTO from, LngLatDTO to) {
-      double dist = distance(from, to);
-      return dist / STEP_SIZE;
-  }
-
-  private PathResult buildPathFromCameFrom(Map<String, String> cameFrom,
-                                           LngLatDTO goalPoint,
-                                           String startKey,
-                                           LngLatDTO end) {
-      List<LngLatDTO> rev = new ArrayList<>();
-      String curKey = key(goalPoint);
-      rev.add(copyPoint(goalPoint));
-
-      while (cameFrom.containsKey(curKey)) {
-          curKey = cameFrom.get(curKey);
-          // find point for key? we stored key only; rebuild from string
-          rev.add(pointFromKey(curKey));
-          if (curKey.equals(startKey)) break;
-      }
-
-      List<LngLatDTO> path = new ArrayList<>();
-      for (int i = rev.size() - 1; i >= 0; i--) {
-          path.add(rev.get(i));
-      }
-
-      PathResult pr = new PathResult();
-      pr.setPath(path);
-      pr.setMoves(Math.max(0, path.size() - 1));
-
-      double totalDist = 0.0;
-      for (int i = 1; i < path.size(); i++) {
-          totalDist += distance(path.get(i - 1), path.get(i));
-      }
-      pr.setTotalDistance(totalDist);
-      return pr;
-  }
-
-   private String key(LngLatDTO p) {
-       // Preserve full precision to avoid rounding drift
-       return p.getLng() + ":" + p.getLat();
-   }
-
-  private LngLatDTO pointFromKey(String key) {
-      String[] parts = key.split(":");
-      if (parts.length != 2) return new LngLatDTO(0.0, 0.0);
-      double lng = Double.parseDouble(parts[0]);
-      double lat = Double.parseDouble(parts[1]);
-      return new LngLatDTO(lng, lat);
-  }
-
-  private static class Node {
-      LngLatDTO point;
-      int gScore;
-      double fScore;
-
-      Node(LngLatDTO point, int gScore, double hScore) {
-          this.point = point;
-          this.gScore = gScore;
-          this.fScore = gScore + hScore;
-      }
+                                      RestrictedAreaGeometry restrictedAreas) {
+      return aStar.search(start, end, resolveMaxMoves(capability), restrictedAreas);
   }
 
   /**
@@ -876,7 +600,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
   private LngLatDTO chooseNextStep(LngLatDTO current,
                                   double angleToTarget,
                                   LngLatDTO end,
-                                  List<RestrictedAreaDTO> restrictedAreas) {
+                                  RestrictedAreaGeometry restrictedAreas) {
 
       double curDist = distance(current, end);
 
@@ -914,49 +638,9 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
   // -------------------- RESTRICTED AREAS --------------------
 
-  private boolean isInAnyRestrictedArea(LngLatDTO p, List<RestrictedAreaDTO> areas) {
+  private boolean isInAnyRestrictedArea(LngLatDTO p, RestrictedAreaGeometry areas) {
       if (p == null || areas == null) return false;
-
-
-
-
-      for (RestrictedAreaDTO area : areas) {
-          List<LngLatDTO> vertices = area.getVertices();
-          if (vertices == null || vertices.size() < 3) continue;
-          if (isPointInPolygon(p, vertices)) return true;
-      }
-      return false;
-  }
-
-
-
-
-  private boolean isPointInPolygon(LngLatDTO p, List<LngLatDTO> vertices) {
-      boolean inside = false;
-      int n = vertices.size();
-
-
-
-
-      for (int i = 0, j = n - 1; i < n; j = i++) {
-          LngLatDTO vi = vertices.get(i);
-          LngLatDTO vj = vertices.get(j);
-
-
-
-
-          boolean intersect =
-                  ((vi.getLat() > p.getLat()) != (vj.getLat() > p.getLat())) &&
-                          (p.getLng() < (vj.getLng() - vi.getLng()) *
-                                  (p.getLat() - vi.getLat()) /
-                                  (vj.getLat() - vi.getLat()) + vi.getLng());
-
-
-
-
-          if (intersect) inside = !inside;
-      }
-      return inside;
+      return areas.contains(p);
   }
 
 
@@ -1080,7 +764,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
   private boolean matchesDispatch(DroneDTO drone,
                                   MedDispatchRecDTO rec,
-                                  List<AvailabilitySlotDTO> slots,
+                                  int[] windows,
                                   LngLatDTO dispatchPoint,
                                   LngLatDTO startPoint) {
 
@@ -1093,7 +777,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
 
       if (req == null) {
-          return isDroneAvailableAt(rec, slots);
+          return isDroneAvailableAt(rec, windows);
       }
 
       if (req.getCapacity() != null && cap.getCapacity() < req.getCapacity()) {
@@ -1107,7 +791,7 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
       if (needHeating && !cap.isHeating()) return false;
       if (needCooling && needHeating && (!cap.isCooling() || !cap.isHeating())) return false;
 
-      return isDroneAvailableAt(rec, slots);
+      return isDroneAvailableAt(rec, windows);
   }
 
   private double euclideanDistance(LngLatDTO a, LngLatDTO b) {
@@ -1116,10 +800,15 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
       return Math.sqrt(dx * dx + dy * dy);
   }
 
+  /** Fewest moves that can bring a within CLOSE_EPSILON of b, as no move covers more than one step. */
+  private int minMoves(LngLatDTO a, LngLatDTO b) {
+      return (int) Math.max(0, Math.ceil((euclideanDistance(a, b) - CLOSE_EPSILON) / STEP_SIZE - 1e-9));
+  }
+
   private boolean isDroneAvailableAt(MedDispatchRecDTO rec,
-                                     List<AvailabilitySlotDTO> slots) {
+                                     int[] windows) {
 
-      if (slots == null || slots.isEmpty()) return false;
+      if (windows == null || windows.length == 0) return false;
       if (rec.getDate() == null || rec.getTime() == null) return false;
 
 
@@ -1131,64 +820,6 @@ public CalcDeliveryPathResponseDTO calcDeliveryPath(List<MedDispatchRecDTO> disp
 
 
 
-      for (AvailabilitySlotDTO slot : slots) {
-          if (slot.getDayOfWeek() == day &&
-                  !time.isBefore(slot.getFrom()) &&
-                  !time.isAfter(slot.getUntil())) {
-              return true;
-          }
-      }
-      return false;
-  }
-
-  // -------------------- MAP BUILDERS --------------------
-
-  private Map<Integer, List<AvailabilitySlotDTO>> buildAvailabilityMap(
-          List<ServicePointAvailabilityDTO> availabilityData) {
-
-      Map<Integer, List<AvailabilitySlotDTO>> map = new HashMap<>();
-      if (availabilityData == null) return map;
-
-      for (ServicePointAvailabilityDTO sp : availabilityData) {
-          if (sp.getDrones() == null) continue;
-          for (DroneAvailabilityDTO d : sp.getDrones()) {
-              if (d.getId() == null || d.getAvailability() == null) continue;
-              try {
-                  int id = Integer.parseInt(d.getId());
-                  map.merge(id,
-                          new ArrayList<>(d.getAvailability()),
-                          (oldList, newList) -> {
-                              oldList.addAll(newList);
-                              return oldList;
-                          });
-              } catch (NumberFormatException ignored) {}
-          }
-      }
-      return map;
-  }
-
-  private Map<Integer, LngLatDTO> buildDispatchPointMap(
-          List<ServicePointAvailabilityDTO> availabilityData,
-          Map<Integer, LngLatDTO> servicePointLocationById) {
-
-
-
-
-      Map<Integer, LngLatDTO> map = new HashMap<>();
-      if (availabilityData == null) return map;
-
-      for (ServicePointAvailabilityDTO sp : availabilityData) {
-          LngLatDTO spLoc = servicePointLocationById.get(sp.getServicePointId());
-          if (spLoc == null || sp.getDrones() == null) continue;
-
-          for (DroneAvailabilityDTO d : sp.getDrones()) {
-              if (d.getId() == null) continue;
-              try {
-                  int droneId = Integer.parseInt(d.getId());
-                  map.put(droneId, spLoc);
-              } catch (NumberFormatException ignored) {}
-          }
-      }
-      return map;
+      return WeeklyWindows.contains(windows, day, time);
   }
  }
@@ -0,0 +1,212 @@
+package com.ilp.restapi.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.PathResult;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of planned legs (start to end paths), shared across requests.
+ *
+ * A leg only depends on its exact endpoints, the move budget and the restricted areas,
+ * so entries are keyed by the lattice cells of start and end plus the move budget, and
+ * belong to one restricted-area version ({@code WorldModel.areasVersion}), which stays
+ * put across reference data updates that leave the areas alone. The cell only narrows
+ * the lookup: a hit also has to match the exact start and end coordinates, otherwise
+ * the leg is planned again and replaces the entry. Every leg has to come from the same
+ * planner, as the key does not tell planners apart.
+ *
+ * Versions are handled like {@code QueryResultCache}: a newer version drops every leg,
+ * an older one is computed but not stored. Eviction is least recently used, bounded by
+ * the total number of path points ({@code ilp.route.leg-cache-points}) rather than the
+ * number of legs. A leg is kept as plain coordinates and every caller gets an
+ * unmodifiable list of its own points, so a response can change them freely.
+ *
+ * Hits, misses, size and hit ratio are published as {@code ilp.route.leg.cache.*}.
+ */
+@Component
+public class LegPathCache {
+
+    // Key cell: the A* lattice unit, in absolute coordinates
+    private static final double CELL = DroneService.STEP_SIZE / AStarSearch.LATTICE_DIVISIONS;
+
+    private final int maxPoints;
+    private final MeterRegistry meterRegistry;
+    private final Map<LegKey, Leg> legs = new LinkedHashMap<>(64, 0.75f, true);
+    private long version = Long.MIN_VALUE;
+    private long points;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LegPathCache(@Value("${ilp.route.leg-cache-points:200000}") int maxPoints,
+                        MeterRegistry meterRegistry) {
+        this.maxPoints = maxPoints;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Registered once constructed, so the gauges never see a partly built cache
+    @PostConstruct
+    void registerMeters() {
+        FunctionCounter.builder("ilp.route.leg.cache.hits", hits, LongAdder::sum)
+                .description("Route legs answered from the leg cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("ilp.route.leg.cache.misses", misses, LongAdder::sum)
+                .description("Route legs that had to be planned")
+                .register(meterRegistry);
+        Gauge.builder("ilp.route.leg.cache.size", this, LegPathCache::size)
+                .description("Route legs cached for the current restricted areas")
+                .register(meterRegistry);
+        Gauge.builder("ilp.route.leg.cache.hit.ratio", this, LegPathCache::hitRatio)
+                .description("Share of route legs answered from the leg cache")
+                .register(meterRegistry);
+    }
+
+    /** Cached leg for these endpoints and budget at this areas version, or the freshly planned one. */
+    public PathResult get(LngLatDTO start, LngLatDTO end, int maxMoves, long areasVersion, Supplier<PathResult> plan) {
+        LegKey key = new LegKey(start, end, maxMoves);
+        synchronized (legs) {
+            if (areasVersion > version) {
+                legs.clear();
+                points = 0;
+                version = areasVersion;
+            }
+            Leg cached = areasVersion == version ? legs.get(key) : null;
+            if (cached != null && cached.connects(start, end)) {
+                hits.increment();
+                return cached.toResult();
+            }
+        }
+
+        misses.increment();
+        PathResult planned = plan.get();
+        Leg leg = new Leg(start, end, planned);
+        synchronized (legs) {
+            if (areasVersion == version && leg.points() <= maxPoints) {
+                Leg replaced = legs.put(key, leg);
+                points += leg.points() - (replaced == null ? 0 : replaced.points());
+                evict();
+            }
+        }
+        return leg.toResult();
+    }
+
+    private void evict() {
+        Iterator<Leg> eldest = legs.values().iterator();
+        while (points > maxPoints && eldest.hasNext()) {
+            points -= eldest.next().points();
+            eldest.remove();
+        }
+    }
+
+    int size() {
+        synchronized (legs) {
+            return legs.size();
+        }
+    }
+
+    double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    private static final class LegKey {
+
+        private final long startX;
+        private final long startY;
+        private final long endX;
+        private final long endY;
+        private final int maxMoves;
+
+        LegKey(LngLatDTO start, LngLatDTO end, int maxMoves) {
+            this.startX = Math.round(start.getLng() / CELL);
+            this.startY = Math.round(start.getLat() / CELL);
+            this.endX = Math.round(end.getLng() / CELL);
+            this.endY = Math.round(end.getLat() / CELL);
+            this.maxMoves = maxMoves;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LegKey other)) return false;
+            return startX == other.startX && startY == other.startY
+                    && endX == other.endX && endY == other.endY
+                    && maxMoves == other.maxMoves;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = startX;
+            h = h * 31 + startY;
+            h = h * 31 + endX;
+            h = h * 31 + endY;
+            h = h * 31 + maxMoves;
+            return Long.hashCode(h);
+        }
+    }
+
+    private static final class Leg {
+
+        private final double startLng;
+        private final double startLat;
+        private final double endLng;
+        private final double endLat;
+        private final double[] lngs;
+        private final double[] lats;
+        private final int moves;
+        private final double totalDistance;
+
+        Leg(LngLatDTO start, LngLatDTO end, PathResult planned) {
+            this.startLng = start.getLng();
+            this.startLat = start.getLat();
+            this.endLng = end.getLng();
+            this.endLat = end.getLat();
+            List<LngLatDTO> path = planned.getPath();
+            this.lngs = new double[path.size()];
+            this.lats = new double[path.size()];
+            for (int i = 0; i < lngs.length; i++) {
+                lngs[i] = path.get(i).getLng();
+                lats[i] = path.get(i).getLat();
+            }
+            this.moves = planned.getMoves();
+            this.totalDistance = planned.getTotalDistance();
+        }
+
+        // Bit-for-bit equal endpoints, so a hit is exactly what planning would return
+        boolean connects(LngLatDTO start, LngLatDTO end) {
+            return Double.compare(startLng, start.getLng()) == 0 && Double.compare(startLat, start.getLat()) == 0
+                    && Double.compare(endLng, end.getLng()) == 0 && Double.compare(endLat, end.getLat()) == 0;
+        }
+
+        int points() {
+            return lngs.length;
+        }
+
+        PathResult toResult() {
+            LngLatDTO[] path = new LngLatDTO[lngs.length];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = new LngLatDTO(lngs[i], lats[i]);
+            }
+            PathResult result = new PathResult();
+            result.setPath(List.of(path));
+            result.setMoves(moves);
+            result.setTotalDistance(totalDistance);
+            return result;
+        }
+    }
+}
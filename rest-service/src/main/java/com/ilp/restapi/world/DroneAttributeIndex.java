@@ -0,0 +1,728 @@
+package com.ilp.restapi.world;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.query.CompiledClause;
+import com.ilp.restapi.query.CompiledCondition;
+import com.ilp.restapi.query.CompiledQuery;
+import com.ilp.restapi.query.QueryCursor;
+import com.ilp.restapi.query.QueryOrder;
+
+/**
+ * Columnar index over the fleet's queryable attributes, built once per world model.
+ *
+ * Numeric attributes are stored as value-sorted primitive columns with the matching
+ * drone indices, so every comparison ({@code <}, {@code >=}, {@code BETWEEN}, ...) becomes
+ * a binary search and one or two ranges of set bits. {@code cooling}/{@code heating} are
+ * bitsets, and names are hashed on their ASCII case-folded form. Results are
+ * {@link BitSet}s over drone indices: an OR clause is the union of its alternatives'
+ * sets and a query the intersection of its clauses'.
+ *
+ * Matching is exactly the same as {@link CompiledCondition#test}: doubles compare with
+ * {@code Double.compare} for (in)equality and primitive comparisons otherwise, drones
+ * without a capability never match capability conditions, and a column holding a null
+ * value is not indexed, so its conditions are evaluated per drone.
+ */
+public final class DroneAttributeIndex {
+
+    // Probing a candidate costs about this many bits set by an index range
+    private static final int PROBE_COST = 4;
+
+    private final DroneDTO[] drones;
+    private final BitSet all;
+    private final BitSet withCapability;
+
+    private final IntColumn ids;
+    private final IntColumn maxMoves;
+    private final DoubleColumn capacity;
+    private final DoubleColumn costPerMove;
+    private final DoubleColumn costInitial;
+    private final DoubleColumn costFinal;
+    private final BitSet cooling;
+    private final BitSet heating;
+    private final int withCapabilityCount;
+    private final int coolingCount;
+    private final int heatingCount;
+
+    private final Map<String, BitSet> namesByFoldedName;
+    private final BitSet nonAsciiNames;
+    private final int nonAsciiNameCount;
+
+    DroneAttributeIndex(DroneDTO[] drones) {
+        this.drones = drones;
+        int n = drones.length;
+        this.all = new BitSet(n);
+        all.set(0, n);
+
+        this.withCapability = new BitSet(n);
+        this.cooling = new BitSet(n);
+        this.heating = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            CapabilityDTO cap = drones[i].getCapability();
+            if (cap == null) continue;
+            withCapability.set(i);
+            if (cap.isCooling()) cooling.set(i);
+            if (cap.isHeating()) heating.set(i);
+        }
+
+        this.withCapabilityCount = withCapability.cardinality();
+        this.coolingCount = cooling.cardinality();
+        this.heatingCount = heating.cardinality();
+
+        int[] allIndices = withCapability.stream().toArray();
+        this.ids = IntColumn.build(drones, indicesOf(n), d -> d.getId());
+        this.maxMoves = IntColumn.build(drones, allIndices, d -> d.getCapability().getMaxMoves());
+        this.capacity = DoubleColumn.build(drones, allIndices, d -> d.getCapability().getCapacity());
+        this.costPerMove = DoubleColumn.build(drones, allIndices, d -> d.getCapability().getCostPerMove());
+        this.costInitial = DoubleColumn.build(drones, allIndices, d -> d.getCapability().getCostInitial());
+        this.costFinal = DoubleColumn.build(drones, allIndices, d -> d.getCapability().getCostFinal());
+
+        this.namesByFoldedName = new HashMap<>();
+        this.nonAsciiNames = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            String name = drones[i].getName();
+            if (name == null) continue;
+            String folded = foldAscii(name.trim());
+            if (folded == null) {
+                nonAsciiNames.set(i);
+            } else {
+                namesByFoldedName.computeIfAbsent(folded, k -> new BitSet(n)).set(i);
+            }
+        }
+        this.nonAsciiNameCount = nonAsciiNames.cardinality();
+    }
+
+    /**
+     * Drone indices matching the query, in fleet order.
+     *
+     * Clauses are planned by estimated selectivity: the index answers the most selective
+     * ones first and the candidate set is intersected with each in turn. Once the
+     * candidates are few compared to what the next clause would select, or the clause is
+     * not indexable, the remaining clauses are checked per drone on the candidates only.
+     */
+    public BitSet select(CompiledQuery query) {
+        if (query.isUnsatisfiable()) return new BitSet();
+
+        List<CompiledClause> clauses = query.clauses();
+        int[] estimates = new int[clauses.size()];
+        Integer[] order = new Integer[clauses.size()];
+        for (int k = 0; k < order.length; k++) {
+            estimates[k] = estimate(clauses.get(k));
+            order[k] = k;
+        }
+        // Not indexable (-1) goes last; otherwise fewest expected matches first
+        Arrays.sort(order, (a, b) -> Integer.compare(
+                estimates[a] < 0 ? Integer.MAX_VALUE : estimates[a],
+                estimates[b] < 0 ? Integer.MAX_VALUE : estimates[b]));
+
+        BitSet result = (BitSet) all.clone();
+        int candidates = drones.length;
+        int next = 0;
+        while (next < order.length) {
+            int estimate = estimates[order[next]];
+            if (estimate < 0 || (long) candidates * PROBE_COST < estimate) break;
+            result.and(select(clauses.get(order[next])));
+            candidates = result.cardinality();
+            if (candidates == 0) return result;
+            next++;
+        }
+
+        for (; next < order.length; next++) {
+            CompiledClause clause = clauses.get(order[next]);
+            for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                if (!clause.test(drones[i])) result.clear(i);
+            }
+        }
+        return result;
+    }
+
+    /** Upper bound of the drones matching the clause, or -1 if it is not indexable. */
+    int estimate(CompiledClause clause) {
+        long total = 0;
+        for (CompiledCondition c : clause.alternatives()) {
+            int count = estimate(c);
+            if (count < 0) return -1;
+            total += count;
+        }
+        return (int) Math.min(total, drones.length);
+    }
+
+    /** Drones matching any alternative of an indexable clause. */
+    BitSet select(CompiledClause clause) {
+        BitSet out = new BitSet(drones.length);
+        for (CompiledCondition c : clause.alternatives()) {
+            out.or(select(c));
+        }
+        return out;
+    }
+
+    /** Upper bound of the drones matching the condition, or -1 if it is not indexable. */
+    int estimate(CompiledCondition c) {
+        return switch (c.attribute()) {
+            case ID -> ids.count(c);
+            case MAX_MOVES -> maxMoves.count(c);
+            case CAPACITY -> capacity == null ? -1 : capacity.count(c);
+            case COST_PER_MOVE -> costPerMove == null ? -1 : costPerMove.count(c);
+            case COST_INITIAL -> costInitial == null ? -1 : costInitial.count(c);
+            case COST_FINAL -> costFinal == null ? -1 : costFinal.count(c);
+            case COOLING -> booleanCount(coolingCount, c);
+            case HEATING -> booleanCount(heatingCount, c);
+            case NAME -> nameCount(c);
+        };
+    }
+
+    /** Matching drone indices; the condition must be indexable. */
+    BitSet select(CompiledCondition c) {
+        return switch (c.attribute()) {
+            case ID -> ids.select(c);
+            case MAX_MOVES -> maxMoves.select(c);
+            case CAPACITY -> capacity.select(c);
+            case COST_PER_MOVE -> costPerMove.select(c);
+            case COST_INITIAL -> costInitial.select(c);
+            case COST_FINAL -> costFinal.select(c);
+            case COOLING -> booleanSelect(cooling, c);
+            case HEATING -> booleanSelect(heating, c);
+            case NAME -> nameSelect(c);
+        };
+    }
+
+    /** Drones that have a capability; a fresh copy the caller may modify. */
+    public BitSet withCapability() {
+        return (BitSet) withCapability.clone();
+    }
+
+    /** Drones that have a capability with cooling; a fresh copy. */
+    public BitSet cooling() {
+        return (BitSet) cooling.clone();
+    }
+
+    /** Drones that have a capability with heating; a fresh copy. */
+    public BitSet heating() {
+        return (BitSet) heating.clone();
+    }
+
+    /**
+     * Drones whose capacity is below the value ({@code <}, so never NaN), or null if
+     * the capacity column is not indexed.
+     */
+    public BitSet capacityBelow(double value) {
+        if (capacity == null) return null;
+        return fill(drones.length, capacity.droneIndices,
+                capacity.spans(CompiledCondition.Operator.LT, value, 0));
+    }
+
+    // Estimates come from precomputed counts, so planning never builds a bitset
+
+    private int booleanCount(int trueCount, CompiledCondition c) {
+        boolean wantTrue = c.booleanValue() == (c.operator() == CompiledCondition.Operator.EQ);
+        return wantTrue ? trueCount : withCapabilityCount - trueCount;
+    }
+
+    // Upper bound: every non-ASCII name is counted as a possible match
+    private int nameCount(CompiledCondition c) {
+        String folded = foldAscii(c.stringValue());
+        if (folded == null) return -1;
+        BitSet exact = namesByFoldedName.get(folded);
+        int exactCount = exact == null ? 0 : exact.cardinality();
+        return c.operator() == CompiledCondition.Operator.EQ
+                ? exactCount + nonAsciiNameCount
+                : drones.length - exactCount;
+    }
+
+    private BitSet booleanSelect(BitSet trueSet, CompiledCondition c) {
+        boolean wantTrue = c.booleanValue() == (c.operator() == CompiledCondition.Operator.EQ);
+        BitSet out = (BitSet) withCapability.clone();
+        if (wantTrue) {
+            out.and(trueSet);
+        } else {
+            out.andNot(trueSet);
+        }
+        return out;
+    }
+
+    private BitSet nameSelect(CompiledCondition c) {
+        String folded = foldAscii(c.stringValue());
+        if (folded == null) return null;
+
+        BitSet equal = new BitSet(drones.length);
+        BitSet exact = namesByFoldedName.get(folded);
+        if (exact != null) equal.or(exact);
+        // Non-ASCII names can still equal an ASCII value ignoring case (e.g. the Kelvin sign)
+        for (int i = nonAsciiNames.nextSetBit(0); i >= 0; i = nonAsciiNames.nextSetBit(i + 1)) {
+            if (drones[i].getName().trim().equalsIgnoreCase(c.stringValue())) equal.set(i);
+        }
+
+        if (c.operator() == CompiledCondition.Operator.EQ) return equal;
+        BitSet out = (BitSet) all.clone();
+        out.andNot(equal);
+        return out;
+    }
+
+    /** Lower-cases ASCII letters; returns null if the string has any non-ASCII character. */
+    private static String foldAscii(String s) {
+        char[] out = new char[s.length()];
+        for (int i = 0; i < out.length; i++) {
+            char ch = s.charAt(i);
+            if (ch > 0x7F) return null;
+            out[i] = (ch >= 'A' && ch <= 'Z') ? (char) (ch + ('a' - 'A')) : ch;
+        }
+        return new String(out);
+    }
+
+    private static int[] indicesOf(int n) {
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = i;
+        return out;
+    }
+
+    // -------------------- ORDERED PAGES --------------------
+
+    /**
+     * Up to {@code count} drone indices from {@code hits}, in the given order, starting
+     * after the cursor (or at the beginning if it is null).
+     *
+     * Walks the sorted column from the cursor's position, so a top-k page only looks at
+     * the drones before its last result. Columns that are not indexed (null values) fall
+     * back to a bounded heap over the hits.
+     */
+    public int[] page(BitSet hits, QueryOrder order, QueryCursor after, int count) {
+        IntList out = new IntList(Math.min(count, 64));
+        if (order.attribute() == null) {
+            int from = after == null ? 0 : after.droneIndex() + 1;
+            for (int i = hits.nextSetBit(from); i >= 0 && out.size < count; i = hits.nextSetBit(i + 1)) {
+                out.add(i);
+            }
+            return out.toArray();
+        }
+
+        SortedColumn column = column(order.attribute());
+        if (column == null) return heapPage(hits, order, after, count);
+
+        if (after == null || !after.isMissing()) {
+            if (order.isDescending()) {
+                walkDescending(column, hits, after, count, out);
+            } else {
+                walkAscending(column, hits, after, count, out);
+            }
+        }
+
+        // Drones without a value come last, in fleet order
+        if (out.size == count) return out.toArray();
+        BitSet present = column.present();
+        int from = after != null && after.isMissing() ? after.droneIndex() + 1 : 0;
+        for (int i = hits.nextSetBit(from); i >= 0 && out.size < count; i = hits.nextSetBit(i + 1)) {
+            if (!present.get(i)) out.add(i);
+        }
+        return out.toArray();
+    }
+
+    /** Cursor positioned at the given drone, for the page that follows it. */
+    public QueryCursor cursorAt(QueryOrder order, int droneIndex, long version) {
+        if (order.attribute() == null) return new QueryCursor(version, false, 0, droneIndex);
+        Number value = valueOf(order, drones[droneIndex]);
+        if (value == null) return new QueryCursor(version, true, 0, droneIndex);
+        long bits = order.isIntValued() ? value.intValue() : Double.doubleToLongBits(value.doubleValue());
+        return new QueryCursor(version, false, bits, droneIndex);
+    }
+
+    private SortedColumn column(CompiledCondition.Attribute attribute) {
+        return switch (attribute) {
+            case ID -> ids;
+            case MAX_MOVES -> maxMoves;
+            case CAPACITY -> capacity;
+            case COST_PER_MOVE -> costPerMove;
+            case COST_INITIAL -> costInitial;
+            case COST_FINAL -> costFinal;
+            default -> null;
+        };
+    }
+
+    // Positions are in (value, drone index) order, so the cursor's successor is a binary search away
+    private static void walkAscending(SortedColumn column, BitSet hits, QueryCursor after, int count, IntList out) {
+        int end = column.presentEnd();
+        int p = 0;
+        if (after != null) {
+            int lo = 0, hi = end;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = column.compareAt(mid, after.valueBits());
+                if (cmp < 0 || (cmp == 0 && column.droneIndices[mid] <= after.droneIndex())) lo = mid + 1;
+                else hi = mid;
+            }
+            p = lo;
+        }
+        for (; p < end && out.size < count; p++) {
+            if (hits.get(column.droneIndices[p])) out.add(column.droneIndices[p]);
+        }
+    }
+
+    // Runs of equal values are walked from the top down, each one still in fleet order
+    private static void walkDescending(SortedColumn column, BitSet hits, QueryCursor after, int count, IntList out) {
+        int hi = column.presentEnd();
+        if (after != null) {
+            int runStart = firstPosition(column, after.valueBits(), false);
+            int runEnd = firstPosition(column, after.valueBits(), true);
+            int lo = runStart, top = runEnd;
+            while (lo < top) {
+                int mid = (lo + top) >>> 1;
+                if (column.droneIndices[mid] <= after.droneIndex()) lo = mid + 1; else top = mid;
+            }
+            for (int p = lo; p < runEnd && out.size < count; p++) {
+                if (hits.get(column.droneIndices[p])) out.add(column.droneIndices[p]);
+            }
+            hi = runStart;
+        }
+        while (hi > 0 && out.size < count) {
+            long bits = column.bitsAt(hi - 1);
+            int lo = hi - 1;
+            while (lo > 0 && column.compareAt(lo - 1, bits) == 0) lo--;
+            for (int p = lo; p < hi && out.size < count; p++) {
+                if (hits.get(column.droneIndices[p])) out.add(column.droneIndices[p]);
+            }
+            hi = lo;
+        }
+    }
+
+    /** First position whose value is at least ({@code above} false) or above the given one. */
+    private static int firstPosition(SortedColumn column, long bits, boolean above) {
+        int lo = 0, hi = column.presentEnd();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = column.compareAt(mid, bits);
+            if (cmp < 0 || (above && cmp == 0)) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int[] heapPage(BitSet hits, QueryOrder order, QueryCursor after, int count) {
+        Comparator<Integer> byKey = (a, b) -> compareKeys(order, a, b);
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(byKey.reversed());
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            if (after != null && compareToCursor(order, i, after) <= 0) continue;
+            if (worstFirst.size() < count) {
+                worstFirst.add(i);
+            } else if (byKey.compare(i, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(i);
+            }
+        }
+        int[] out = new int[worstFirst.size()];
+        for (int k = out.length - 1; k >= 0; k--) out[k] = worstFirst.poll();
+        return out;
+    }
+
+    private int compareKeys(QueryOrder order, int a, int b) {
+        return compareToCursor(order, a, cursorAt(order, b, 0));
+    }
+
+    private int compareToCursor(QueryOrder order, int droneIndex, QueryCursor cursor) {
+        Number value = valueOf(order, drones[droneIndex]);
+        if ((value == null) != cursor.isMissing()) return value == null ? 1 : -1;
+        if (value != null) {
+            int cmp = order.isIntValued()
+                    ? Integer.compare(value.intValue(), (int) cursor.valueBits())
+                    : Double.compare(value.doubleValue(), Double.longBitsToDouble(cursor.valueBits()));
+            if (order.isDescending()) cmp = -cmp;
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(droneIndex, cursor.droneIndex());
+    }
+
+    /** The drone's value for the order attribute, or null if it has none (or NaN). */
+    private static Number valueOf(QueryOrder order, DroneDTO drone) {
+        if (order.attribute() == CompiledCondition.Attribute.ID) return drone.getId();
+        CapabilityDTO cap = drone.getCapability();
+        if (cap == null) return null;
+        if (order.attribute() == CompiledCondition.Attribute.MAX_MOVES) return cap.getMaxMoves();
+
+        Double value = switch (order.attribute()) {
+            case CAPACITY -> cap.getCapacity();
+            case COST_PER_MOVE -> cap.getCostPerMove();
+            case COST_INITIAL -> cap.getCostInitial();
+            case COST_FINAL -> cap.getCostFinal();
+            default -> null;
+        };
+        return value == null || value.isNaN() ? null : value;
+    }
+
+    private static final class IntList {
+        private int[] items;
+        private int size;
+
+        IntList(int capacity) {
+            this.items = new int[Math.max(capacity, 1)];
+        }
+
+        void add(int value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    // -------------------- COLUMNS --------------------
+
+    private static int width(int[] spans) {
+        int total = 0;
+        for (int k = 0; k < spans.length; k += 2) total += spans[k + 1] - spans[k];
+        return total;
+    }
+
+    private static BitSet fill(int size, int[] droneIndices, int[] spans) {
+        BitSet out = new BitSet(size);
+        for (int k = 0; k < spans.length; k += 2) {
+            for (int p = spans[k]; p < spans[k + 1]; p++) out.set(droneIndices[p]);
+        }
+        return out;
+    }
+
+    /**
+     * A value-sorted column. Positions {@code [0, presentEnd)} hold comparable values in
+     * (value, drone index) order; anything after that (NaN) counts as missing.
+     */
+    private abstract static class SortedColumn {
+        final int size;
+        final int[] droneIndices;
+
+        SortedColumn(int size, int[] droneIndices) {
+            this.size = size;
+            this.droneIndices = droneIndices;
+        }
+
+        abstract int presentEnd();
+
+        /** Sign of the value at position p compared to the value with these bits. */
+        abstract int compareAt(int p, long bits);
+
+        abstract long bitsAt(int p);
+
+        /** Drones with a comparable value. */
+        BitSet present() {
+            BitSet out = new BitSet(size);
+            for (int p = 0; p < presentEnd(); p++) out.set(droneIndices[p]);
+            return out;
+        }
+    }
+
+    private interface IntField {
+        int get(DroneDTO d);
+    }
+
+    private interface DoubleField {
+        Double get(DroneDTO d);
+    }
+
+    /** Sorted int values with the drone index of each entry. */
+    private static final class IntColumn extends SortedColumn {
+        private final int[] values;
+
+        private IntColumn(int size, int[] values, int[] droneIndices) {
+            super(size, droneIndices);
+            this.values = values;
+        }
+
+        @Override
+        int presentEnd() {
+            return values.length;
+        }
+
+        @Override
+        int compareAt(int p, long bits) {
+            return Integer.compare(values[p], (int) bits);
+        }
+
+        @Override
+        long bitsAt(int p) {
+            return values[p];
+        }
+
+        static IntColumn build(DroneDTO[] drones, int[] members, IntField field) {
+            long[] packed = new long[members.length];
+            for (int k = 0; k < members.length; k++) {
+                // value in the high half (sign-flipped so it sorts unsigned), index in the low half
+                int v = field.get(drones[members[k]]);
+                packed[k] = ((long) (v ^ Integer.MIN_VALUE) << 32) | members[k];
+            }
+            Arrays.sort(packed);
+            int[] values = new int[packed.length];
+            int[] indices = new int[packed.length];
+            for (int k = 0; k < packed.length; k++) {
+                values[k] = (int) (packed[k] >>> 32) ^ Integer.MIN_VALUE;
+                indices[k] = (int) packed[k];
+            }
+            return new IntColumn(drones.length, values, indices);
+        }
+
+        /** Matching entries as {@code [from, to)} position pairs into the sorted column. */
+        int[] spans(CompiledCondition c) {
+            int v = c.intValue();
+            return switch (c.operator()) {
+                case LT -> new int[] {0, lowerBound(v)};
+                case LE -> new int[] {0, upperBound(v)};
+                case GT -> new int[] {upperBound(v), values.length};
+                case GE -> new int[] {lowerBound(v), values.length};
+                case EQ -> new int[] {lowerBound(v), upperBound(v)};
+                case NE -> new int[] {0, lowerBound(v), upperBound(v), values.length};
+                case BETWEEN -> new int[] {lowerBound(v), Math.max(lowerBound(v), upperBound(c.intUpper()))};
+            };
+        }
+
+        int count(CompiledCondition c) {
+            return width(spans(c));
+        }
+
+        BitSet select(CompiledCondition c) {
+            return fill(size, droneIndices, spans(c));
+        }
+
+        private int lowerBound(int v) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private int upperBound(int v) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Doubles sorted by {@code Double.compare} (so -0.0 before 0.0 and NaN last), with
+     * the drone index of each entry. Null if any member has a null value.
+     */
+    private static final class DoubleColumn extends SortedColumn {
+        private final double[] values;
+        private final int nanStart;
+
+        private DoubleColumn(int size, double[] values, int[] droneIndices) {
+            super(size, droneIndices);
+            this.values = values;
+            int firstNaN = values.length;
+            while (firstNaN > 0 && Double.isNaN(values[firstNaN - 1])) firstNaN--;
+            this.nanStart = firstNaN;
+        }
+
+        @Override
+        int presentEnd() {
+            return nanStart;
+        }
+
+        @Override
+        int compareAt(int p, long bits) {
+            return Double.compare(values[p], Double.longBitsToDouble(bits));
+        }
+
+        @Override
+        long bitsAt(int p) {
+            return Double.doubleToLongBits(values[p]);
+        }
+
+        static DoubleColumn build(DroneDTO[] drones, int[] members, DoubleField field) {
+            Integer[] order = new Integer[members.length];
+            double[] raw = new double[members.length];
+            for (int k = 0; k < members.length; k++) {
+                Double v = field.get(drones[members[k]]);
+                if (v == null) return null;
+                raw[k] = v;
+                order[k] = k;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int cmp = Double.compare(raw[a], raw[b]);
+                return cmp != 0 ? cmp : Integer.compare(members[a], members[b]);
+            });
+            double[] values = new double[members.length];
+            int[] indices = new int[members.length];
+            for (int k = 0; k < order.length; k++) {
+                values[k] = raw[order[k]];
+                indices[k] = members[order[k]];
+            }
+            return new DoubleColumn(drones.length, values, indices);
+        }
+
+        /** Matching entries as {@code [from, to)} position pairs into the sorted column. */
+        int[] spans(CompiledCondition c) {
+            return spans(c.operator(), c.doubleValue(), c.doubleUpper());
+        }
+
+        int[] spans(CompiledCondition.Operator op, double v, double upper) {
+            // Ordering uses primitive comparisons: never true for NaN, and -0.0 == 0.0
+            if (op.isRange() && Double.isNaN(v)) return new int[0];
+            return switch (op) {
+                case LT -> new int[] {0, firstNotBelow(v)};
+                case LE -> new int[] {0, firstAbove(v)};
+                case GT -> new int[] {firstAbove(v), nanStart};
+                case GE -> new int[] {firstNotBelow(v), nanStart};
+                case EQ -> new int[] {firstCompareAtLeast(v), firstCompareAbove(v)};
+                case NE -> new int[] {0, firstCompareAtLeast(v), firstCompareAbove(v), values.length};
+                case BETWEEN -> {
+                    if (Double.isNaN(upper)) yield new int[0];
+                    int from = firstNotBelow(v);
+                    yield new int[] {from, Math.max(from, firstAbove(upper))};
+                }
+            };
+        }
+
+        int count(CompiledCondition c) {
+            return width(spans(c));
+        }
+
+        BitSet select(CompiledCondition c) {
+            return fill(size, droneIndices, spans(c));
+        }
+
+        private int firstNotBelow(double v) {
+            int lo = 0, hi = nanStart;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private int firstAbove(double v) {
+            int lo = 0, hi = nanStart;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (!(values[mid] > v)) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private int firstCompareAtLeast(double v) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Double.compare(values[mid], v) < 0) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private int firstCompareAbove(double v) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Double.compare(values[mid], v) <= 0) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
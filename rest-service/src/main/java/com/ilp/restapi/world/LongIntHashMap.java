@@ -0,0 +1,85 @@
+package com.ilp.restapi.world;
+
+import java.util.Arrays;
+
+/**
+ * Minimal open-addressing map from long keys to non-negative int values, growable and
+ * reusable through {@link #clear}. Used without boxing for id -> array index lookups in
+ * the world model (int ids widen to long) and for lattice key -> node lookups in A*.
+ */
+public final class LongIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, EMPTY);
+    }
+
+    /** Returns the value for the key, or -1 if absent. */
+    public int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /** Stores the value unless the key is already present. Returns true if inserted. */
+    public boolean putIfAbsent(long key, int value) {
+        if (2 * (size + 1) > keys.length) {
+            grow();
+        }
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        Arrays.fill(values, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) putIfAbsent(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private int slot(long key) {
+        // Spreads sequential ids, and lets both packed axes of a lattice key reach the low bits
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ilp.restapi.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+
+/**
+ * Restricted areas compiled into flat coordinate arrays with bounding boxes, so the
+ * point-in-polygon test used by path finding runs on primitives and most polygons
+ * are rejected by a box check.
+ */
+public final class RestrictedAreaGeometry {
+
+    private final double[][] lngs;
+    private final double[][] lats;
+    private final double[] minLat;
+    private final double[] maxLat;
+    private final double[] minLng;
+    private final double[] maxLng;
+
+    private RestrictedAreaGeometry(List<double[]> lngs, List<double[]> lats) {
+        int n = lngs.size();
+        this.lngs = lngs.toArray(new double[0][]);
+        this.lats = lats.toArray(new double[0][]);
+        this.minLat = new double[n];
+        this.maxLat = new double[n];
+        this.minLng = new double[n];
+        this.maxLng = new double[n];
+
+        for (int a = 0; a < n; a++) {
+            double loLat = Double.POSITIVE_INFINITY;
+            double hiLat = Double.NEGATIVE_INFINITY;
+            double loLng = Double.POSITIVE_INFINITY;
+            double hiLng = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < this.lngs[a].length; i++) {
+                loLat = Math.min(loLat, this.lats[a][i]);
+                hiLat = Math.max(hiLat, this.lats[a][i]);
+                loLng = Math.min(loLng, this.lngs[a][i]);
+                hiLng = Math.max(hiLng, this.lngs[a][i]);
+            }
+            minLat[a] = loLat;
+            maxLat[a] = hiLat;
+            minLng[a] = loLng;
+            maxLng[a] = hiLng;
+        }
+    }
+
+    /** Compiles the areas, skipping any without at least three usable vertices. */
+    public static RestrictedAreaGeometry compile(List<RestrictedAreaDTO> areas) {
+        List<double[]> lngs = new ArrayList<>();
+        List<double[]> lats = new ArrayList<>();
+        if (areas != null) {
+            for (RestrictedAreaDTO area : areas) {
+                if (area == null || area.getVertices() == null) continue;
+
+                List<LngLatDTO> usable = new ArrayList<>();
+                for (LngLatDTO v : area.getVertices()) {
+                    if (v != null && v.getLng() != null && v.getLat() != null) {
+                        usable.add(v);
+                    }
+                }
+                if (usable.size() < 3) continue;
+
+                double[] xs = new double[usable.size()];
+                double[] ys = new double[usable.size()];
+                for (int i = 0; i < usable.size(); i++) {
+                    xs[i] = usable.get(i).getLng();
+                    ys[i] = usable.get(i).getLat();
+                }
+                lngs.add(xs);
+                lats.add(ys);
+            }
+        }
+        return new RestrictedAreaGeometry(lngs, lats);
+    }
+
+    /** True if other holds the same areas, vertex for vertex and in the same order. */
+    public boolean sameAreas(RestrictedAreaGeometry other) {
+        return Arrays.deepEquals(lngs, other.lngs) && Arrays.deepEquals(lats, other.lats);
+    }
+
+    public int areaCount() {
+        return lngs.length;
+    }
+
+    public boolean contains(LngLatDTO p) {
+        return p != null && contains(p.getLng(), p.getLat());
+    }
+
+    /** True if the point lies inside any restricted area (even-odd ray casting). */
+    public boolean contains(double lng, double lat) {
+        for (int a = 0; a < lngs.length; a++) {
+            // A horizontal ray can only cross edges if lat is within the box, and only
+            // crossings to the right of the point count
+            if (lat < minLat[a] || lat >= maxLat[a] || lng > maxLng[a]) continue;
+            if (insidePolygon(lngs[a], lats[a], lng, lat)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * True if the segment from a to b touches any restricted area: an endpoint lies
+     * inside one, or the segment meets one of its edges (touching counts).
+     */
+    public boolean crossesSegment(double aLng, double aLat, double bLng, double bLat) {
+        if (contains(aLng, aLat) || contains(bLng, bLat)) return true;
+        double loLng = Math.min(aLng, bLng), hiLng = Math.max(aLng, bLng);
+        double loLat = Math.min(aLat, bLat), hiLat = Math.max(aLat, bLat);
+        for (int a = 0; a < lngs.length; a++) {
+            if (hiLng < minLng[a] || loLng > maxLng[a] || hiLat < minLat[a] || loLat > maxLat[a]) continue;
+            double[] xs = lngs[a];
+            double[] ys = lats[a];
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if (segmentsMeet(aLng, aLat, bLng, bLat, xs[j], ys[j], xs[i], ys[i])) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsMeet(double ax, double ay, double bx, double by,
+                                        double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        // Collinear or touching: an endpoint lies on the other segment
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+                || (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    // Orientation of p relative to the line through a and b
+    private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    // For a point collinear with a and b: whether it lies between them
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    private static boolean insidePolygon(double[] xs, double[] ys, double lng, double lat) {
+        boolean inside = false;
+        int n = xs.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            boolean intersect =
+                    ((ys[i] > lat) != (ys[j] > lat)) &&
+                            (lng < (xs[j] - xs[i]) * (lat - ys[i]) / (ys[j] - ys[i]) + xs[i]);
+            if (intersect) inside = !inside;
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ilp.restapi.world;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.RequirementsDTO;
+
+/**
+ * Minute-of-week bitmaps of "some drone here can take the dispatch" for one service
+ * point group.
+ *
+ * There is one bitmap per capability class of a dispatch: the cooling/heating flags it
+ * needs and the smallest capacity level (one of the distinct capacities at the group)
+ * that covers its capacity, plus a last level holding only NaN capacities, which never
+ * compare as too small. Bit {@code m} is set if a drone of that class is available
+ * at second {@code 60 * m} of the week, so the answer is exact for whole-minute times
+ * only; other times have to be checked against the windows.
+ */
+public final class ServicePointAvailability {
+
+    static final int MINUTES_PER_WEEK = WeeklyWindows.SECONDS_PER_WEEK / 60;
+
+    // Beyond this many distinct capacities the bitmaps are not worth their memory
+    private static final int MAX_CAPACITY_LEVELS = 32;
+
+    private final double[] capacityLevels;
+    private final BitSet[] bitmaps;   // [flags * (levels + 1) + level]
+
+    private ServicePointAvailability(double[] capacityLevels, BitSet[] bitmaps) {
+        this.capacityLevels = capacityLevels;
+        this.bitmaps = bitmaps;
+    }
+
+    /**
+     * Bitmaps over the given drones, or null if one of them has a capability without a
+     * capacity (which the per-drone check cannot compare) or there are too many levels.
+     */
+    static ServicePointAvailability build(DroneDTO[] drones, int[][] windows, int[] droneIndices) {
+        double[] capacities = new double[droneIndices.length];
+        int n = 0;
+        for (int droneIndex : droneIndices) {
+            CapabilityDTO cap = drones[droneIndex].getCapability();
+            if (cap == null) continue;
+            if (cap.getCapacity() == null) return null;
+            if (!cap.getCapacity().isNaN()) capacities[n++] = cap.getCapacity();
+        }
+
+        // Distinct values as compared by '<' (-0.0 and 0.0 are one level)
+        Arrays.sort(capacities, 0, n);
+        int levels = 0;
+        for (int i = 0; i < n; i++) {
+            if (levels == 0 || capacities[i] != capacities[levels - 1]) capacities[levels++] = capacities[i];
+        }
+        if (levels > MAX_CAPACITY_LEVELS) return null;
+        double[] capacityLevels = Arrays.copyOf(capacities, levels);
+
+        BitSet[] bitmaps = new BitSet[4 * (levels + 1)];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new BitSet(MINUTES_PER_WEEK);
+        }
+        for (int droneIndex : droneIndices) {
+            CapabilityDTO cap = drones[droneIndex].getCapability();
+            if (cap == null || windows[droneIndex] == null) continue;
+
+            // A drone with capacity c covers every level <= c; NaN is never too small
+            double capacity = cap.getCapacity();
+            int topLevel = Double.isNaN(capacity) ? levels : levelOf(capacityLevels, capacity);
+            for (int flags = 0; flags < 4; flags++) {
+                if ((flags & 1) != 0 && !cap.isCooling()) continue;
+                if ((flags & 2) != 0 && !cap.isHeating()) continue;
+                for (int level = 0; level <= topLevel; level++) {
+                    setMinutes(bitmaps[flags * (levels + 1) + level], windows[droneIndex]);
+                }
+            }
+        }
+        return new ServicePointAvailability(capacityLevels, bitmaps);
+    }
+
+    /** True if the answer of {@link #anyCapable} is exact for dispatches at this time. */
+    public static boolean isWholeMinute(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    /**
+     * True if some drone of the group meets the requirements (null means none) and is
+     * available at the given whole-minute time.
+     */
+    public boolean anyCapable(RequirementsDTO req, DayOfWeek day, LocalTime time) {
+        int flags = 0;
+        int level = 0;
+        if (req != null) {
+            if (Boolean.TRUE.equals(req.getCooling())) flags |= 1;
+            if (Boolean.TRUE.equals(req.getHeating())) flags |= 2;
+            // Nothing is below a NaN requirement
+            Double needed = req.getCapacity();
+            if (needed != null && !needed.isNaN()) level = firstLevelAtLeast(capacityLevels, needed);
+        }
+        int minute = WeeklyWindows.secondOfWeek(day, time) / 60;
+        return bitmaps[flags * (capacityLevels.length + 1) + level].get(minute);
+    }
+
+    // Index of the last level <= capacity; the capacity is one of the levels
+    private static int levelOf(double[] levels, double capacity) {
+        int lo = 0, hi = levels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (levels[mid] <= capacity) lo = mid + 1; else hi = mid;
+        }
+        return lo - 1;
+    }
+
+    // Index of the first level >= value, or the NaN-only bitmap past the last level
+    private static int firstLevelAtLeast(double[] levels, double value) {
+        int lo = 0, hi = levels.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (levels[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // Minutes m with start <= 60 * m <= end, for each window
+    private static void setMinutes(BitSet minutes, int[] windows) {
+        for (int i = 0; i < windows.length; i += 2) {
+            int from = (windows[i] + 59) / 60;
+            int to = windows[i + 1] / 60;
+            if (from <= to) minutes.set(from, to + 1);
+        }
+    }
+}
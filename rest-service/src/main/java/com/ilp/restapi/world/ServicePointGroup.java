@@ -0,0 +1,47 @@
+package com.ilp.restapi.world;
+
+import com.ilp.restapi.data.LngLatDTO;
+
+/**
+ * One availability entry of the upstream data: a service point with a known location
+ * and the indices of the fleet drones listed there.
+ */
+public final class ServicePointGroup {
+
+    private final int servicePointId;
+    private final LngLatDTO location;
+    private final int[] droneIndices;
+    private final int[] classDroneIndices;
+    private final ServicePointAvailability availability;
+
+    ServicePointGroup(int servicePointId, LngLatDTO location, int[] droneIndices, int[] classDroneIndices,
+                      ServicePointAvailability availability) {
+        this.servicePointId = servicePointId;
+        this.location = location;
+        this.droneIndices = droneIndices;
+        this.classDroneIndices = classDroneIndices;
+        this.availability = availability;
+    }
+
+    public int getServicePointId() {
+        return servicePointId;
+    }
+
+    public LngLatDTO getLocation() {
+        return location;
+    }
+
+    public int[] getDroneIndices() {
+        return droneIndices;
+    }
+
+    /** The first listed drone of each equivalence class at this entry, in listing order. */
+    public int[] getClassDroneIndices() {
+        return classDroneIndices;
+    }
+
+    /** Minute bitmaps of the drones listed here, or null if they could not be built. */
+    public ServicePointAvailability getAvailability() {
+        return availability;
+    }
+}
@@ -0,0 +1,353 @@
+package com.ilp.restapi.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.ilp.restapi.client.ReferenceSnapshot;
+import com.ilp.restapi.client.ServicePointSchedule;
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+/**
+ * Immutable, indexed view of one reference snapshot.
+ *
+ * Built once per snapshot version and shared by every request. Drones are addressed by
+ * their position in the fleet list ("drone index"); all per-drone tables are arrays
+ * over that index.
+ */
+public final class WorldModel {
+
+    private final long version;
+
+    private final DroneDTO[] drones;
+    private final List<DroneDTO> droneList;
+    private final LongIntHashMap droneIndexById;
+    private final DroneAttributeIndex attributeIndex;
+    private final int[][] windowsByDrone;
+    private final LngLatDTO[] baseByDrone;
+    private final int[] classByDrone;
+    private final int[] classRepresentatives;
+
+    private final LongIntHashMap servicePointIndexById;
+    private final LngLatDTO[] servicePointLocations;
+    private final int[][] droneIndicesByServicePoint;
+    private final List<ServicePointGroup> servicePointGroups;
+
+    private final RestrictedAreaGeometry restrictedAreas;
+    private final long areasVersion;
+
+    private WorldModel(ReferenceSnapshot snapshot, WorldModel previous) {
+        this.version = snapshot.getVersion();
+
+        // ---- Drones (fleet order, first occurrence wins for id lookups) ----
+        List<DroneDTO> fleet = new ArrayList<>();
+        for (DroneDTO d : snapshot.getDrones()) {
+            if (d != null) fleet.add(d);
+        }
+        this.drones = fleet.toArray(new DroneDTO[0]);
+        this.droneList = List.of(drones);
+        this.droneIndexById = new LongIntHashMap(drones.length);
+        for (int i = 0; i < drones.length; i++) {
+            droneIndexById.putIfAbsent(drones[i].getId(), i);
+        }
+        this.attributeIndex = new DroneAttributeIndex(drones);
+
+        // ---- Service points ----
+        List<ServicePointDTO> sps = snapshot.getServicePoints();
+        this.servicePointIndexById = new LongIntHashMap(sps.size());
+        List<LngLatDTO> locations = new ArrayList<>();
+        for (ServicePointDTO sp : sps) {
+            if (sp == null || sp.getId() == null || sp.getLocation() == null) continue;
+            if (servicePointIndexById.putIfAbsent(sp.getId(), locations.size())) {
+                locations.add(sp.getLocation());
+            }
+        }
+        this.servicePointLocations = locations.toArray(new LngLatDTO[0]);
+
+        // ---- Availability: merged windows per drone, base per drone, drones per service point ----
+        int[][] windows = new int[drones.length][];
+        LngLatDTO[] bases = new LngLatDTO[drones.length];
+        List<List<Integer>> atServicePoint = new ArrayList<>();
+        for (int i = 0; i < servicePointLocations.length; i++) {
+            atServicePoint.add(new ArrayList<>());
+        }
+        List<Integer> groupIds = new ArrayList<>();
+        List<LngLatDTO> groupLocations = new ArrayList<>();
+        List<int[]> groupDrones = new ArrayList<>();
+
+        for (ServicePointSchedule sp : snapshot.getAvailability()) {
+            int spIndex = servicePointIndexById.get(sp.getServicePointId());
+            LngLatDTO spLoc = spIndex < 0 ? null : servicePointLocations[spIndex];
+
+            List<Integer> listed = new ArrayList<>();
+            for (int k = 0; k < sp.droneCount(); k++) {
+                int droneIndex = droneIndexById.get(sp.droneId(k));
+                if (droneIndex < 0) continue;
+
+                listed.add(droneIndex);
+                if (spLoc != null) {
+                    atServicePoint.get(spIndex).add(droneIndex);
+                    bases[droneIndex] = spLoc;
+                }
+                windows[droneIndex] = concat(windows[droneIndex], sp.windows(k));
+            }
+            if (spLoc != null) {
+                groupIds.add(sp.getServicePointId());
+                groupLocations.add(spLoc);
+                groupDrones.add(toArray(listed));
+            }
+        }
+
+        // Drones sharing an id share the same tables, exactly like an id-keyed map would.
+        // Windows become sorted, disjoint intervals so availability is a binary search.
+        for (int i = 0; i < drones.length; i++) {
+            int first = droneIndexById.get(drones[i].getId());
+            if (first == i) {
+                windows[i] = WeeklyWindows.normalize(windows[i]);
+            } else {
+                windows[i] = windows[first];
+                bases[i] = bases[first];
+            }
+        }
+
+        this.windowsByDrone = windows;
+        this.baseByDrone = bases;
+        this.droneIndicesByServicePoint = new int[atServicePoint.size()][];
+        for (int i = 0; i < atServicePoint.size(); i++) {
+            droneIndicesByServicePoint[i] = toArray(atServicePoint.get(i));
+        }
+
+        // ---- Equivalence classes: drones that no dispatch check can tell apart ----
+        Map<DroneClassKey, Integer> classIds = new HashMap<>();
+        List<Integer> representatives = new ArrayList<>();
+        this.classByDrone = new int[drones.length];
+        for (int i = 0; i < drones.length; i++) {
+            DroneClassKey key = new DroneClassKey(drones[i].getCapability(), bases[i], windows[i]);
+            Integer id = classIds.putIfAbsent(key, representatives.size());
+            if (id == null) {
+                id = representatives.size();
+                representatives.add(i);
+            }
+            classByDrone[i] = id;
+        }
+        this.classRepresentatives = toArray(representatives);
+
+        List<ServicePointGroup> groups = new ArrayList<>();
+        for (int g = 0; g < groupIds.size(); g++) {
+            int[] listed = groupDrones.get(g);
+            int[] classFirsts = firstOfEachClass(listed);
+            groups.add(new ServicePointGroup(groupIds.get(g), groupLocations.get(g), listed, classFirsts,
+                    ServicePointAvailability.build(drones, windows, classFirsts)));
+        }
+        this.servicePointGroups = List.copyOf(groups);
+
+        // ---- Restricted areas (kept, with their version, while they do not change) ----
+        RestrictedAreaGeometry areas = RestrictedAreaGeometry.compile(snapshot.getRestrictedAreas());
+        if (previous != null && previous.restrictedAreas.sameAreas(areas)) {
+            this.restrictedAreas = previous.restrictedAreas;
+            this.areasVersion = previous.areasVersion;
+        } else {
+            this.restrictedAreas = areas;
+            this.areasVersion = version;
+        }
+    }
+
+    public static WorldModel build(ReferenceSnapshot snapshot) {
+        return new WorldModel(snapshot, null);
+    }
+
+    /** Builds the model for a newer snapshot, keeping previous's restricted areas if they are unchanged. */
+    public static WorldModel build(ReferenceSnapshot snapshot, WorldModel previous) {
+        return new WorldModel(snapshot, previous);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** False if no reference data has ever been loaded (the upstream was down from the start). */
+    public boolean isAvailable() {
+        return version > 0;
+    }
+
+    // -------------------- DRONES --------------------
+
+    public int droneCount() {
+        return drones.length;
+    }
+
+    /** All drones in fleet order, as an unmodifiable list. */
+    public List<DroneDTO> drones() {
+        return droneList;
+    }
+
+    public DroneDTO drone(int droneIndex) {
+        return drones[droneIndex];
+    }
+
+    /** Index of the first drone with this id, or -1. */
+    public int droneIndexOf(int droneId) {
+        return droneIndexById.get(droneId);
+    }
+
+    public DroneDTO droneById(int droneId) {
+        int index = droneIndexById.get(droneId);
+        return index < 0 ? null : drones[index];
+    }
+
+    /** Columnar index for attribute queries; results are bitsets over drone indices. */
+    public DroneAttributeIndex attributeIndex() {
+        return attributeIndex;
+    }
+
+    /**
+     * Normalized {@link WeeklyWindows} of the drone across all service points, or null
+     * if it is not listed anywhere. Must not be modified.
+     */
+    public int[] windows(int droneIndex) {
+        return windowsByDrone[droneIndex];
+    }
+
+    /** Location of the service point the drone is dispatched from, or null. */
+    public LngLatDTO base(int droneIndex) {
+        return baseByDrone[droneIndex];
+    }
+
+    // -------------------- EQUIVALENCE CLASSES --------------------
+
+    /**
+     * Drones with equal capability values, the same base and the same availability
+     * windows pass and fail every dispatch check alike; each such group is one class.
+     * Classes are numbered 0..classCount()-1 in order of their first drone.
+     */
+    public int classCount() {
+        return classRepresentatives.length;
+    }
+
+    public int droneClass(int droneIndex) {
+        return classByDrone[droneIndex];
+    }
+
+    /** First drone (in fleet order) of the class. */
+    public int classRepresentative(int droneClass) {
+        return classRepresentatives[droneClass];
+    }
+
+    // -------------------- SERVICE POINTS --------------------
+
+    /** Location of the service point, or null if unknown. */
+    public LngLatDTO servicePointLocation(int servicePointId) {
+        int index = servicePointIndexById.get(servicePointId);
+        return index < 0 ? null : servicePointLocations[index];
+    }
+
+    /** Drone indices listed at the service point, in availability order. */
+    public int[] dronesAtServicePoint(int servicePointId) {
+        int index = servicePointIndexById.get(servicePointId);
+        return index < 0 ? new int[0] : droneIndicesByServicePoint[index];
+    }
+
+    /** Availability entries with a known location, in upstream order. */
+    public List<ServicePointGroup> servicePointGroups() {
+        return servicePointGroups;
+    }
+
+    // -------------------- RESTRICTED AREAS --------------------
+
+    public RestrictedAreaGeometry restrictedAreas() {
+        return restrictedAreas;
+    }
+
+    /**
+     * Version of the snapshot the restricted areas last changed in. Anything derived from
+     * the areas alone, such as planned legs, stays valid while this does not move.
+     */
+    public long areasVersion() {
+        return areasVersion;
+    }
+
+    private int[] firstOfEachClass(int[] droneIndices) {
+        List<Integer> firsts = new ArrayList<>();
+        boolean[] seen = new boolean[classRepresentatives.length];
+        for (int droneIndex : droneIndices) {
+            int c = classByDrone[droneIndex];
+            if (!seen[c]) {
+                seen[c] = true;
+                firsts.add(droneIndex);
+            }
+        }
+        return firsts.size() == droneIndices.length ? droneIndices : toArray(firsts);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        if (a == null) return b;
+        int[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] out = new int[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = values.get(i);
+        }
+        return out;
+    }
+
+    /**
+     * Class key. Capability values compare with {@code Double.equals}, so -0.0 and NaN
+     * are only grouped with themselves; bases are compared by identity, as every base is
+     * one of the service point location objects.
+     */
+    private static final class DroneClassKey {
+
+        private final CapabilityDTO cap;
+        private final LngLatDTO base;
+        private final int[] windows;
+        private final int hash;
+
+        DroneClassKey(CapabilityDTO cap, LngLatDTO base, int[] windows) {
+            this.cap = cap;
+            this.base = base;
+            this.windows = windows;
+            int h = System.identityHashCode(base) * 31 + Arrays.hashCode(windows);
+            if (cap != null) {
+                h = h * 31 + Objects.hash(cap.isCooling(), cap.isHeating(), cap.getCapacity(), cap.getMaxMoves(),
+                        cap.getCostPerMove(), cap.getCostInitial(), cap.getCostFinal());
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DroneClassKey other)) return false;
+            return hash == other.hash
+                    && base == other.base
+                    && Arrays.equals(windows, other.windows)
+                    && sameCapability(cap, other.cap);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static boolean sameCapability(CapabilityDTO a, CapabilityDTO b) {
+            if (a == null || b == null) return a == b;
+            return a.isCooling() == b.isCooling()
+                    && a.isHeating() == b.isHeating()
+                    && a.getMaxMoves() == b.getMaxMoves()
+                    && Objects.equals(a.getCapacity(), b.getCapacity())
+                    && Objects.equals(a.getCostPerMove(), b.getCostPerMove())
+                    && Objects.equals(a.getCostInitial(), b.getCostInitial())
+                    && Objects.equals(a.getCostFinal(), b.getCostFinal());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ilp.restapi.world;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+import com.ilp.restapi.client.ReferenceDataCache;
+import com.ilp.restapi.client.ReferenceSnapshot;
+
+/**
+ * Publishes the {@link WorldModel} for the current reference snapshot.
+ *
+ * Reads are a lock-free version check. When the snapshot version moves on, the first
+ * reader compiles the new model and swaps it in atomically; readers that arrive during
+ * the rebuild wait for it rather than compiling their own copy. The new model keeps the
+ * old one's restricted areas, and their version, when they have not changed.
+ */
+@Component
+public class WorldModelHolder {
+
+    private final ReferenceDataCache referenceData;
+    private final AtomicReference<WorldModel> current = new AtomicReference<>();
+    private final Object buildLock = new Object();
+
+    public WorldModelHolder(ReferenceDataCache referenceData) {
+        this.referenceData = referenceData;
+    }
+
+    public WorldModel current() {
+        ReferenceSnapshot snapshot = referenceData.snapshot();
+        WorldModel world = current.get();
+        if (world != null && world.version() == snapshot.getVersion()) {
+            return world;
+        }
+        synchronized (buildLock) {
+            world = current.get();
+            if (world == null || world.version() < snapshot.getVersion()) {
+                world = WorldModel.build(snapshot, world);
+                current.set(world);
+            }
+            return world;
+        }
+    }
+}
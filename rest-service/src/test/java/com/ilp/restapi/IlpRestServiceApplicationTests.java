@@ -1,11 +1,25 @@
 package com.ilp.restapi;
 
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class IlpRestServiceApplicationTests {
 
+	// Never restore or overwrite the snapshot a real run left in the shared tmp directory
+	@TempDir
+	static Path snapshotDir;
+
+	@DynamicPropertySource
+	static void snapshotStore(DynamicPropertyRegistry registry) {
+		registry.add("ilp.snapshot.store.file", () -> snapshotDir.resolve("reference-snapshot.bin").toString());
+	}
+
 	@Test
 	void contextLoads() {
 	}
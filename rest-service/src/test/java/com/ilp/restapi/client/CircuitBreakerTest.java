@@ -0,0 +1,130 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private MutableClock clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        breaker = new CircuitBreaker(3, Duration.ofSeconds(30), 4, clock);
+    }
+
+    /**
+     * Test case 1: The circuit stays closed below the failure threshold.
+     */
+    @Test
+    void testStaysClosedBelowThreshold() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    /**
+     * Test case 2: Reaching the threshold opens the circuit and calls fail fast.
+     */
+    @Test
+    void testOpensAtThreshold() {
+        tripBreaker();
+
+        assertFalse(breaker.allowRequest(), "Open circuit should reject calls.");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    /**
+     * Test case 3: After the open period one refresh worth of trial calls is allowed;
+     * success closes the circuit.
+     */
+    @Test
+    void testHalfOpenTrialSuccessCloses() {
+        tripBreaker();
+        clock.advance(Duration.ofSeconds(30));
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.allowRequest(), "Trial call " + i + " should be let through.");
+        }
+        assertFalse(breaker.allowRequest(), "No more than one refresh of trial calls.");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+    }
+
+    /**
+     * Test case 4: A failed trial call re-opens the circuit immediately.
+     */
+    @Test
+    void testHalfOpenTrialFailureReopens() {
+        tripBreaker();
+        clock.advance(Duration.ofSeconds(31));
+        breaker.allowRequest();
+
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.allowRequest());
+    }
+
+    /**
+     * Test case 5: A new open period grants a fresh set of trial calls.
+     */
+    @Test
+    void testReopenedCircuitGrantsNewTrials() {
+        tripBreaker();
+        clock.advance(Duration.ofSeconds(30));
+        for (int i = 0; i < 4; i++) {
+            breaker.allowRequest();
+        }
+        breaker.recordFailure();
+
+        clock.advance(Duration.ofSeconds(30));
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ilp.restapi.data.DroneDTO;
+
+class FileIlpClientTest {
+
+    @TempDir
+    Path directory;
+
+    private FileIlpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(directory.resolve("drones.json"), "[{\"name\":\"Drone 1\",\"id\":1}]");
+        Files.writeString(directory.resolve("drones-for-service-points.json"),
+                "[{\"servicePointId\":1,\"drones\":[{\"id\":\"1\",\"availability\":[]}]}]");
+        Files.writeString(directory.resolve("service-points.json"),
+                "[{\"name\":\"Appleton Tower\",\"id\":1,\"location\":{\"lng\":-3.18,\"lat\":55.94}}]");
+        Files.writeString(directory.resolve("restricted-areas.json"), "[]");
+
+        client = new FileIlpClient(directory.toString(), false, event -> { });
+    }
+
+    /**
+     * Test case 1: All four datasets are read from the recorded files.
+     */
+    @Test
+    void testReadsRecordedDatasets() {
+        assertEquals("Drone 1", client.fetchDrones().get(0).getName());
+        assertEquals(1, client.fetchAvailability().get(0).droneId(0));
+        assertEquals(55.94, client.fetchServicePoints().get(0).getLocation().getLat());
+        assertEquals(0, client.fetchRestrictedAreas().size());
+    }
+
+    /**
+     * Test case 2: An unchanged file returns the same list instance; a rewritten file is re-read.
+     */
+    @Test
+    void testReloadsOnlyWhenFileChanges() throws IOException {
+        // Arrange
+        List<DroneDTO> first = client.fetchDrones();
+        assertSame(first, client.fetchDrones(), "Unchanged file should not be parsed again.");
+
+        // Act
+        Path file = directory.resolve("drones.json");
+        Files.writeString(file, "[{\"name\":\"Drone 1\",\"id\":1},{\"name\":\"Drone 2\",\"id\":2}]");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        List<DroneDTO> second = client.fetchDrones();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals(2, second.size());
+    }
+
+    /**
+     * Test case 3: A missing file is reported as unavailable, not as an empty dataset.
+     */
+    @Test
+    void testMissingFileIsUnavailable() throws IOException {
+        Files.delete(directory.resolve("restricted-areas.json"));
+
+        assertThrows(IlpUnavailableException.class, client::fetchRestrictedAreas);
+    }
+}
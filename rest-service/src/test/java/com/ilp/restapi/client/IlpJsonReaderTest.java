@@ -0,0 +1,116 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import com.ilp.restapi.data.DroneDTO;
+
+class IlpJsonReaderTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    /**
+     * Test case 1: Drones are read field by field; nulls stay null and unknown fields are skipped.
+     */
+    @Test
+    void testReadDrones() throws IOException {
+        // Arrange
+        String json = """
+                [{"name":"Drone 1","id":1,"extra":{"a":[1,2]},
+                  "capability":{"cooling":true,"heating":false,"capacity":4.5,"maxMoves":1000,
+                                "costPerMove":0.02,"costInitial":null,"costFinal":1.3}},
+                 null,
+                 {"name":"Drone 2","id":2}]
+                """;
+
+        // Act
+        List<DroneDTO> drones = IlpJsonReader.readDrones(factory.createParser(bytes(json)));
+
+        // Assert
+        assertEquals(2, drones.size(), "Null elements should be dropped.");
+        DroneDTO first = drones.get(0);
+        assertEquals("Drone 1", first.getName());
+        assertTrue(first.getCapability().isCooling());
+        assertEquals(4.5, first.getCapability().getCapacity());
+        assertEquals(1000, first.getCapability().getMaxMoves());
+        assertNull(first.getCapability().getCostInitial());
+        assertNull(drones.get(1).getCapability(), "Missing capability should stay null.");
+    }
+
+    /**
+     * Test case 2: Availability is packed into second-of-week windows; drones with
+     * non-numeric ids and incomplete slots are dropped.
+     */
+    @Test
+    void testReadSchedules() throws IOException {
+        // Arrange
+        String json = """
+                [{"servicePointId":1,"drones":[
+                   {"id":"3","availability":[
+                      {"dayOfWeek":"MONDAY","from":"09:00:00","until":"17:00:00"},
+                      {"dayOfWeek":"TUESDAY","from":"09:00:00"}]},
+                   {"id":"x","availability":[]},
+                   {"id":"4"}]},
+                 {"servicePointId":2}]
+                """;
+
+        // Act
+        List<ServicePointSchedule> schedules = IlpJsonReader.readSchedules(factory.createParser(bytes(json)));
+
+        // Assert
+        assertEquals(1, schedules.size(), "A service point without drones should be dropped.");
+        ServicePointSchedule sp = schedules.get(0);
+        assertEquals(2, sp.droneCount());
+        assertEquals(3, sp.droneId(0));
+        assertArrayEquals(new int[] {9 * 3600, 17 * 3600}, sp.windows(0));
+        assertEquals(0, sp.windows(1).length, "Drone without availability keeps an empty window list.");
+    }
+
+    /**
+     * Test case 3: Window bounds are inclusive, down to sub-second times at the end.
+     */
+    @Test
+    void testWindowBoundsAreInclusive() {
+        // Arrange
+        int[] windows = {
+                WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(9, 0)),
+                WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(17, 0))};
+
+        // Act & Assert
+        assertTrue(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(9, 0)));
+        assertTrue(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(17, 0)));
+        assertFalse(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(17, 0, 0, 1)));
+        assertFalse(WeeklyWindows.contains(windows, DayOfWeek.TUESDAY, LocalTime.of(12, 0)));
+    }
+
+    /**
+     * Test case 4: A malformed day fails the whole payload rather than dropping the slot.
+     */
+    @Test
+    void testInvalidDayIsRejected() {
+        String json = """
+                [{"servicePointId":1,"drones":[{"id":"1","availability":[
+                   {"dayOfWeek":"FUNDAY","from":"09:00:00","until":"17:00:00"}]}]}]
+                """;
+
+        assertThrows(IOException.class, () -> IlpJsonReader.readSchedules(factory.createParser(bytes(json))));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
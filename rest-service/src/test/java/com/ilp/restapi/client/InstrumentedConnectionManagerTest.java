@@ -0,0 +1,74 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.configuration.IlpHttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InstrumentedConnectionManagerTest {
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/drones", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test case 1: Sequential requests reuse one pooled connection, every lease is timed,
+     * and the pool limits are published.
+     */
+    @Test
+    void testRequestsReusePooledConnectionAndAreTimed() throws IOException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/drones";
+
+        // Act
+        try (CloseableHttpClient client = new IlpHttpClientConfig().ilpHttpClient(registry,
+                4, 2, Duration.ofSeconds(60), Duration.ofSeconds(30), Duration.ofSeconds(5))) {
+            for (int i = 0; i < 3; i++) {
+                client.execute(new HttpGet(url), response -> EntityUtils.toString(response.getEntity()));
+            }
+
+            // Assert
+            assertEquals(1, clientPorts.size(), "Keep-alive should reuse the first connection.");
+            assertEquals(3, registry.get("ilp.client.pool.lease").timer().count());
+            assertEquals(4.0, registry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "ilp").gauge().value());
+            assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                    .tag("httpclient", "ilp").tag("state", "leased").gauge().value());
+        }
+    }
+}
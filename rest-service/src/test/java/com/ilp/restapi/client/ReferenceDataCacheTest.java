@@ -0,0 +1,222 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.ilp.restapi.configuration.ReferenceDataHeaderInterceptor;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+
+class ReferenceDataCacheTest {
+
+    @Mock
+    private IlpClient ilpClient;
+
+    @BeforeEach
+    void setUp() {
+        // Initialize Mockito annotations
+        MockitoAnnotations.openMocks(this);
+
+        when(ilpClient.fetchDrones()).thenReturn(List.of(new DroneDTO("Drone 1", 1, new CapabilityDTO(true, false))));
+        when(ilpClient.fetchAvailability()).thenReturn(List.of());
+        when(ilpClient.fetchServicePoints()).thenReturn(List.of());
+        when(ilpClient.fetchRestrictedAreas()).thenReturn(List.of());
+    }
+
+    /**
+     * Test case 1: Repeated reads are served from memory after the first load.
+     */
+    @Test
+    void testSnapshotIsServedFromMemory() {
+        // Arrange
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+        // Act
+        ReferenceSnapshot first = cache.snapshot();
+        ReferenceSnapshot second = cache.snapshot();
+
+        // Assert
+        assertSame(first, second, "Second read should return the cached snapshot.");
+        assertEquals(1, first.getDrones().size());
+        verify(ilpClient, times(1)).fetchDrones();
+    }
+
+    /**
+     * Test case 2: A fresh snapshot is not reloaded by the background refresher.
+     */
+    @Test
+    void testRefresherSkipsFreshSnapshot() {
+        // Arrange
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ofMinutes(5), Duration.ofSeconds(5));
+        cache.snapshot();
+
+        // Act
+        cache.refreshIfStale();
+
+        // Assert
+        assertEquals(1L, cache.currentVersion(), "Snapshot within TTL should not be replaced.");
+        verify(ilpClient, times(1)).fetchDrones();
+    }
+
+    /**
+     * Test case 3: An expired snapshot whose data changed is replaced with a higher version.
+     */
+    @Test
+    void testRefresherPublishesChangedData() {
+        // Arrange
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ZERO, Duration.ofSeconds(5));
+        long before = cache.snapshot().getVersion();
+        when(ilpClient.fetchDrones()).thenReturn(List.of());
+
+        // Act
+        cache.refreshIfStale();
+
+        // Assert
+        assertTrue(cache.currentVersion() > before, "Version should increase when data changes.");
+        assertEquals(0, cache.snapshot().getDrones().size());
+    }
+
+    /**
+     * Test case 4: An expired snapshot whose data is unchanged keeps its version.
+     */
+    @Test
+    void testRefresherKeepsVersionForUnchangedData() {
+        // Arrange
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ZERO, Duration.ofSeconds(5));
+        ReferenceSnapshot before = cache.snapshot();
+
+        // Act
+        cache.refreshIfStale();
+
+        // Assert
+        assertEquals(before.getVersion(), cache.currentVersion(), "Unchanged data should not bump the version.");
+        assertSame(before.getDrones(), cache.snapshot().getDrones(), "Parsed lists should be reused.");
+        verify(ilpClient, times(2)).fetchDrones();
+    }
+
+    /**
+     * Test case 5: A failing restricted-area fetch keeps the last good snapshot instead
+     * of publishing one without no-fly zones.
+     */
+    @Test
+    void testFailedRefreshServesLastGoodSnapshot() {
+        // Arrange
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ZERO, Duration.ofSeconds(5));
+        ReferenceSnapshot good = cache.snapshot();
+        when(ilpClient.fetchDrones()).thenReturn(List.of());
+        when(ilpClient.fetchRestrictedAreas()).thenThrow(new IlpUnavailableException("down"));
+
+        // Act
+        cache.refreshIfStale();
+
+        // Assert
+        assertSame(good, cache.snapshot(), "The stale snapshot should keep being served.");
+        assertEquals(1, cache.snapshot().getDrones().size());
+    }
+
+    /**
+     * Test case 6: With nothing loaded and the upstream down, reads get the unavailable
+     * placeholder and nothing is cached.
+     */
+    @Test
+    void testColdStartWithUpstreamDown() {
+        // Arrange
+        when(ilpClient.fetchServicePoints()).thenThrow(new IlpUnavailableException("down"));
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+        // Act
+        ReferenceSnapshot snap = cache.snapshot();
+
+        // Assert
+        assertFalse(snap.isAvailable(), "Placeholder snapshot should be flagged as unavailable.");
+        assertTrue(snap.getDrones().isEmpty());
+        assertNull(cache.peek(), "The placeholder should not be cached.");
+    }
+
+    /**
+     * Test case 7: A persisted snapshot is served at startup without touching the upstream,
+     * and the refresher revalidates it even though it is within the TTL.
+     */
+    @Test
+    void testWarmStartFromPersistedSnapshot(@TempDir Path dir) {
+        // Arrange
+        SnapshotStore store = new SnapshotStore(dir.resolve("snapshot.bin").toString());
+        new ReferenceDataCache(ilpClient, store, Duration.ofMinutes(5), Duration.ofSeconds(5)).snapshot();
+        clearInvocations(ilpClient);
+
+        // Act
+        ReferenceDataCache restarted = new ReferenceDataCache(ilpClient, store, Duration.ofMinutes(5), Duration.ofSeconds(5));
+        restarted.restorePersisted();
+        ReferenceSnapshot restored = restarted.snapshot();
+
+        // Assert
+        assertEquals("Drone 1", restored.getDrones().get(0).getName());
+        verify(ilpClient, never()).fetchDrones();
+
+        restarted.refreshIfStale();
+        verify(ilpClient, times(1)).fetchDrones();
+    }
+
+    /**
+     * Test case 8: The very first request is labelled with the reference data version,
+     * loading it if nothing has been loaded yet.
+     */
+    @Test
+    void testFirstRequestCarriesReferenceDataHeaders() {
+        // Arrange
+        ReferenceDataCache cache = new ReferenceDataCache(ilpClient, SnapshotStore.disabled(), Duration.ofMinutes(5), Duration.ofSeconds(5));
+        ReferenceDataHeaderInterceptor interceptor = new ReferenceDataHeaderInterceptor(cache);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(new MockHttpServletRequest(), response, new Object());
+
+        // Assert
+        assertEquals("1", response.getHeader("X-Reference-Data-Version"));
+        assertEquals("0", response.getHeader("X-Reference-Data-Age"));
+    }
+
+    /**
+     * Test case 9: A restored snapshot that the upstream still agrees with keeps its
+     * version and is not written to disk again.
+     */
+    @Test
+    void testConfirmedRestoreKeepsVersionAndFile(@TempDir Path dir) {
+        // Arrange
+        SnapshotStore store = spy(new SnapshotStore(dir.resolve("snapshot.bin").toString()));
+        new ReferenceDataCache(ilpClient, store, Duration.ofMinutes(5), Duration.ofSeconds(5)).snapshot();
+        clearInvocations(store);
+        ReferenceDataCache restarted = new ReferenceDataCache(ilpClient, store, Duration.ofMinutes(5), Duration.ofSeconds(5));
+        restarted.restorePersisted();
+
+        // Act
+        restarted.refreshIfStale();
+
+        // Assert
+        assertEquals(1L, restarted.currentVersion(), "Unchanged data should keep the restored version.");
+        verify(store, never()).save(any());
+        verify(ilpClient, times(2)).fetchDrones();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    /**
+     * Test case 1: Callers arriving while a fetch is in flight share its result.
+     */
+    @Test
+    void testConcurrentCallersShareOneFetch() throws Exception {
+        // Arrange
+        SingleFlight<List<Integer>> flight = new SingleFlight<>();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> payload = List.of(1, 2, 3);
+        int callers = 8;
+
+        // Act
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(callers)) {
+            results.add(pool.submit(() -> flight.run(() -> {
+                upstreamCalls.incrementAndGet();
+                awaitQuietly(release);
+                return payload;
+            })));
+            // Let the leader start before the followers arrive
+            while (flight.executedCount() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> flight.run(() -> {
+                    upstreamCalls.incrementAndGet();
+                    return List.of();
+                })));
+            }
+            while (flight.coalescedCount() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<List<Integer>> result : results) {
+                assertSame(payload, result.get(5, TimeUnit.SECONDS), "Every caller should get the leader's result.");
+            }
+        }
+        assertEquals(1, upstreamCalls.get(), "Only one upstream call should be made.");
+        assertEquals(callers - 1, flight.coalescedCount());
+    }
+
+    /**
+     * Test case 2: Calls that do not overlap each run their own fetch.
+     */
+    @Test
+    void testSequentialCallsAreNotCoalesced() {
+        // Arrange
+        SingleFlight<String> flight = new SingleFlight<>();
+
+        // Act
+        flight.run(() -> "a");
+        flight.run(() -> "b");
+
+        // Assert
+        assertEquals(2, flight.executedCount());
+        assertEquals(0, flight.coalescedCount());
+    }
+
+    /**
+     * Test case 3: A failed fetch is rethrown and does not block later calls.
+     */
+    @Test
+    void testFailureIsPropagatedAndCleared() {
+        // Arrange
+        SingleFlight<String> flight = new SingleFlight<>();
+
+        // Act + Assert
+        assertThrows(IllegalStateException.class, () -> flight.run(() -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("ok", flight.run(() -> "ok"), "A new call should run after a failure.");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
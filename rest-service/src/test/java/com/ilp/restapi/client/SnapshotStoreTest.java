@@ -0,0 +1,85 @@
+package com.ilp.restapi.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Test case 1: A saved snapshot reads back with the same data, nulls included,
+     * the original fetch time and the newly assigned version.
+     */
+    @Test
+    void testRoundTrip() {
+        // Arrange
+        SnapshotStore store = new SnapshotStore(dir.resolve("snapshot.bin").toString());
+        CapabilityDTO cap = new CapabilityDTO(true, false);
+        cap.setCostInitial(null);
+        ServicePointDTO sp = new ServicePointDTO();
+        sp.setId(1);
+        sp.setLocation(new LngLatDTO(-3.18, 55.94));
+        RestrictedAreaDTO area = new RestrictedAreaDTO();
+        area.setName("George Square");
+        area.setVertices(List.of(new LngLatDTO(0.0, 0.0), new LngLatDTO(1.0, 0.0), new LngLatDTO(0.0, 1.0)));
+        Instant fetchedAt = Instant.ofEpochMilli(1_700_000_000_000L);
+
+        ReferenceSnapshot original = new ReferenceSnapshot(9L, fetchedAt,
+                List.of(new DroneDTO("Drone 1", 1, cap)),
+                List.of(new ServicePointSchedule(1, new int[] {1}, new int[][] {{100, 200}})),
+                List.of(sp),
+                List.of(area));
+
+        // Act
+        store.save(original);
+        ReferenceSnapshot loaded = store.load(3L);
+
+        // Assert
+        assertEquals(3L, loaded.getVersion());
+        assertEquals(fetchedAt, loaded.getFetchedAt());
+        assertEquals("Drone 1", loaded.getDrones().get(0).getName());
+        assertNull(loaded.getDrones().get(0).getCapability().getCostInitial());
+        assertArrayEquals(new int[] {100, 200}, loaded.getAvailability().get(0).windows(0));
+        assertEquals(55.94, loaded.getServicePoints().get(0).getLocation().getLat());
+        assertNull(loaded.getServicePoints().get(0).getName());
+        assertEquals(3, loaded.getRestrictedAreas().get(0).getVertices().size());
+        assertNull(loaded.getRestrictedAreas().get(0).getLimits());
+    }
+
+    /**
+     * Test case 2: A corrupted or missing file is ignored rather than served.
+     */
+    @Test
+    void testCorruptOrMissingFileIsIgnored() throws IOException {
+        // Arrange
+        Path file = dir.resolve("snapshot.bin");
+        SnapshotStore store = new SnapshotStore(file.toString());
+
+        // Act & Assert
+        assertNull(store.load(1L), "Missing file should load as nothing.");
+
+        store.save(new ReferenceSnapshot(1L, Instant.now(), List.of(), List.of(), List.of(), List.of()));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+        assertNull(store.load(1L), "Checksum mismatch should load as nothing.");
+    }
+}
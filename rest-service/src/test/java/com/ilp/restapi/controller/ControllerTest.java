@@ -0,0 +1,77 @@
+package com.ilp.restapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.query.QueryPage;
+import com.ilp.restapi.service.DroneService;
+
+class ControllerTest {
+
+    @Mock
+    private DroneService droneService;
+
+    private Controller controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new Controller(null, null, null, droneService);
+    }
+
+    /**
+     * Test case 1: The batch details endpoint answers 200 with the service's drones, and
+     * treats a missing body as an empty batch.
+     */
+    @Test
+    void testDroneDetailsBatch() {
+        // Arrange
+        DroneDTO drone = new DroneDTO("Drone 7", 7, null);
+        when(droneService.findDronesByIds(List.of(7, 8))).thenReturn(List.of(drone));
+
+        // Act
+        ResponseEntity<List<DroneDTO>> found = controller.getDroneDetailsBatch(List.of(7, 8));
+        ResponseEntity<List<DroneDTO>> noBody = controller.getDroneDetailsBatch(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals(List.of(drone), found.getBody());
+        assertEquals(HttpStatus.OK, noBody.getStatusCode());
+        verify(droneService).findDronesByIds(List.of());
+    }
+
+    /**
+     * Test case 2: A paged query returns the ids as the body and the next cursor in the
+     * X-Next-Cursor header, which is left out on the last page.
+     */
+    @Test
+    void testPagedQueryCursorHeader() {
+        // Arrange
+        when(droneService.queryPage(List.of(), "capacity", "asc", 2, null))
+                .thenReturn(new QueryPage(List.of(1, 2), "next"));
+        when(droneService.queryPage(List.of(), "capacity", "asc", 2, "next"))
+                .thenReturn(new QueryPage(List.of(3), null));
+
+        // Act
+        ResponseEntity<List<Integer>> first = controller.query(null, "capacity", "asc", 2, null);
+        ResponseEntity<List<Integer>> last = controller.query(null, "capacity", "asc", 2, "next");
+
+        // Assert
+        assertEquals(List.of(1, 2), first.getBody());
+        assertEquals("next", first.getHeaders().getFirst(Controller.NEXT_CURSOR_HEADER));
+        assertEquals(List.of(3), last.getBody());
+        assertFalse(last.getHeaders().containsKey(Controller.NEXT_CURSOR_HEADER));
+    }
+}
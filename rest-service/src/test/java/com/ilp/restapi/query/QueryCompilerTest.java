@@ -0,0 +1,113 @@
+package com.ilp.restapi.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.QueryConditionDTO;
+
+class QueryCompilerTest {
+
+    private QueryCompiler compiler;
+    private DroneDTO drone;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new QueryCompiler(16);
+
+        CapabilityDTO cap = new CapabilityDTO(true, false);
+        cap.setCapacity(8.0);
+        cap.setMaxMoves(2000);
+        cap.setCostPerMove(0.01);
+        drone = new DroneDTO(" Drone 4 ", 4, cap);
+    }
+
+    /**
+     * Test case 1: Conditions are parsed once and evaluated with the original semantics.
+     */
+    @Test
+    void testCompiledConditionsMatch() {
+        CompiledQuery query = compiler.compile(List.of(
+                condition(" MaxMoves ", " > ", "1500"),
+                condition("capacity", "=", "8"),
+                condition("cooling", "!=", "FALSE"),
+                condition("name", "=", "drone 4")));
+
+        assertFalse(query.isUnsatisfiable());
+        assertTrue(query.matches(drone));
+        assertFalse(compiler.compile("id", "<", "4").matches(drone));
+    }
+
+    /**
+     * Test case 2: A condition that can never match makes the whole query unsatisfiable.
+     */
+    @Test
+    void testInvalidConditionsAreUnsatisfiable() {
+        assertTrue(compiler.compile("maxMoves", "=", "12.5").isUnsatisfiable(), "Non-integer for int field.");
+        assertTrue(compiler.compile("cooling", ">", "true").isUnsatisfiable(), "No ordering on booleans.");
+        assertTrue(compiler.compile("colour", "=", "red").isUnsatisfiable(), "Unknown attribute.");
+        assertTrue(compiler.compile("capacity", "=~", "4").isUnsatisfiable(), "Unsupported operator.");
+        assertTrue(compiler.compile("name", "between", "a,z").isUnsatisfiable(), "No ordering on names.");
+        assertTrue(compiler.compile("capacity", "between", "4").isUnsatisfiable(), "BETWEEN needs two bounds.");
+        assertTrue(compiler.compile("capacity", "=", null).isUnsatisfiable(), "Missing value.");
+    }
+
+    /**
+     * Test case 3: Compiled queries are cached by normalized text; no conditions matches all.
+     */
+    @Test
+    void testCacheAndMatchAll() {
+        CompiledQuery first = compiler.compile(List.of(condition("capacity", ">", "4")));
+        CompiledQuery second = compiler.compile(List.of(condition(" CAPACITY", "> ", "4")));
+
+        assertSame(first, second, "Normalized text should hit the cache.");
+        assertSame(compiler.compile("id", "in", "1,2"), compiler.compile("id", "IN", "1,2"),
+                "Operators are case-insensitive, so they share a cache entry.");
+        assertTrue(compiler.compile(List.of()).isMatchAll());
+        assertEquals(1, first.clauses().size());
+    }
+
+    /**
+     * Test case 4: Range, BETWEEN, IN and anyOf groups compile to clauses of alternatives.
+     */
+    @Test
+    void testRicherOperatorsAndGroups() {
+        // Arrange
+        QueryConditionDTO group = new QueryConditionDTO();
+        group.setAnyOf(List.of(
+                condition("id", "in", "1, 2, x"),
+                condition("name", "=", "drone 4")));
+
+        // Act
+        CompiledQuery query = compiler.compile(List.of(
+                condition("capacity", ">=", "8"),
+                condition("maxMoves", "BETWEEN", "1000, 2000"),
+                group));
+
+        // Assert
+        assertTrue(query.matches(drone));
+        assertEquals(3, query.clauses().get(2).alternatives().size(), "Unparsable IN items are dropped.");
+        assertFalse(compiler.compile("costPerMove", "<=", "0.001").matches(drone));
+        assertTrue(compiler.compile("id", "IN", "x, y").isUnsatisfiable(), "No IN item can match.");
+
+        QueryConditionDTO empty = new QueryConditionDTO();
+        empty.setAnyOf(List.of());
+        assertTrue(compiler.compile(List.of(empty)).isUnsatisfiable(), "An empty OR matches nothing.");
+    }
+
+    private static QueryConditionDTO condition(String attribute, String operator, String value) {
+        QueryConditionDTO c = new QueryConditionDTO();
+        c.setAttribute(attribute);
+        c.setOperator(operator);
+        c.setValue(value);
+        return c;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ilp.restapi.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QueryResultCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private QueryResultCache cache;
+    private QueryCompiler compiler;
+    private AtomicInteger evaluations;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new QueryResultCache(2, registry);
+        cache.registerMeters();
+        compiler = new QueryCompiler(16);
+        evaluations = new AtomicInteger();
+    }
+
+    /**
+     * Test case 1: Repeated queries at the same version are answered from the cache,
+     * and hits and misses are published.
+     */
+    @Test
+    void testRepeatedQueryHitsCache() {
+        CompiledQuery query = compiler.compile("cooling", "=", "true");
+
+        assertEquals(List.of(1, 2), cache.get(query, 1, this::evaluate));
+        assertEquals(List.of(1, 2), cache.get(compiler.compile(" COOLING ", "=", "true"), 1, this::evaluate));
+
+        assertEquals(1, evaluations.get(), "Normalized query should be evaluated once.");
+        assertEquals(1.0, registry.get("ilp.query.result.cache.hits").functionCounter().count());
+        assertEquals(1.0, registry.get("ilp.query.result.cache.misses").functionCounter().count());
+        assertEquals(0.5, registry.get("ilp.query.result.cache.hit.ratio").gauge().value());
+    }
+
+    /**
+     * Test case 2: A newer version drops cached results; an older one is never stored.
+     */
+    @Test
+    void testVersionChangeInvalidates() {
+        // Arrange
+        CompiledQuery query = compiler.compile("cooling", "=", "true");
+        cache.get(query, 1, this::evaluate);
+
+        // Act
+        cache.get(query, 2, this::evaluate);
+        cache.get(query, 1, this::evaluate);
+        cache.get(query, 2, this::evaluate);
+
+        // Assert
+        assertEquals(3, evaluations.get(), "Only the repeated version 2 lookup should hit.");
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test case 3: The least recently used result is evicted beyond the configured size.
+     */
+    @Test
+    void testSizeBoundEvictsLeastRecentlyUsed() {
+        // Arrange
+        CompiledQuery a = compiler.compile("id", "=", "1");
+        CompiledQuery b = compiler.compile("id", "=", "2");
+        CompiledQuery c = compiler.compile("id", "=", "3");
+
+        // Act
+        cache.get(a, 1, this::evaluate);
+        cache.get(b, 1, this::evaluate);
+        cache.get(a, 1, this::evaluate);
+        cache.get(c, 1, this::evaluate);   // evicts b
+        cache.get(a, 1, this::evaluate);
+        cache.get(b, 1, this::evaluate);
+
+        // Assert
+        assertEquals(4, evaluations.get());
+        assertEquals(2, cache.size());
+    }
+
+    private List<Integer> evaluate() {
+        evaluations.incrementAndGet();
+        return List.of(1, 2);
+    }
+}
@@ -0,0 +1,269 @@
+package com.ilp.restapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.ilp.restapi.world.RestrictedAreaFixtures.rectangle;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.MovementVectorDTO;
+import com.ilp.restapi.data.PathResult;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.world.RestrictedAreaGeometry;
+
+class AStarSearchTest {
+
+    private static final double STEP_SIZE = 0.00015;
+
+    private final AStarSearch search = new AStarSearch(STEP_SIZE, STEP_SIZE);
+
+    /**
+     * Test case 1: An open straight line takes the minimal number of moves, and a reused
+     * scratch space gives the same path again.
+     */
+    @Test
+    void testStraightLineAndReuse() {
+        LngLatDTO start = new LngLatDTO(-3.19, 55.94);
+        LngLatDTO end = new LngLatDTO(-3.19 + 10 * STEP_SIZE, 55.94);
+
+        PathResult first = search.search(start, end, 100, null);
+        PathResult again = search.search(start, end, 100, null);
+
+        assertEquals(9, first.getMoves(), "Stops within one step of the target.");
+        assertEquals(first.getPath().size(), again.getPath().size());
+        for (int i = 0; i < first.getPath().size(); i++) {
+            assertEquals(first.getPath().get(i).getLng(), again.getPath().get(i).getLng());
+            assertEquals(first.getPath().get(i).getLat(), again.getPath().get(i).getLat());
+        }
+    }
+
+    /**
+     * Test case 2: A wall between start and end is flown around, never through, and a
+     * move budget below the detour length finds nothing.
+     */
+    @Test
+    void testDetourAroundRestrictedArea() {
+        // Arrange: wall 6 steps tall, 1 step wide, centred on the straight line
+        RestrictedAreaGeometry wall = RestrictedAreaGeometry.compile(List.of(rectangle(
+                4 * STEP_SIZE, -3 * STEP_SIZE, 5 * STEP_SIZE, 3 * STEP_SIZE)));
+        LngLatDTO start = new LngLatDTO(0.0, 0.0);
+        LngLatDTO end = new LngLatDTO(10 * STEP_SIZE, 0.0);
+
+        // Act
+        PathResult path = search.search(start, end, 100, wall);
+
+        // Assert
+        assertTrue(path.getMoves() > 9, "The detour is longer than the straight line.");
+        for (LngLatDTO p : path.getPath()) {
+            assertFalse(wall.contains(p), "Path enters the restricted area at " + p.getLng() + "," + p.getLat());
+        }
+        assertNull(search.search(start, end, 9, wall));
+    }
+
+    /**
+     * Test case 3: A long open leg is emitted without a search, using only the two
+     * directions either side of the bearing and ending within one step of the target.
+     */
+    @Test
+    void testLongOpenLegUsesTwoAdjacentDirections() {
+        // Arrange: 200 steps at a 30 degree bearing, between the 22.5 and 45 degree moves
+        LngLatDTO start = new LngLatDTO(-3.19, 55.94);
+        double bearing = Math.toRadians(30);
+        LngLatDTO end = new LngLatDTO(-3.19 + 200 * STEP_SIZE * Math.cos(bearing), 55.94 + 200 * STEP_SIZE * Math.sin(bearing));
+
+        // Act
+        PathResult path = search.search(start, end, 2000, null);
+
+        // Assert
+        // The target is 200 * cos(3.75) steps along the 33.75 degree edge normal, and no move
+        // gains more than cos(11.25) along it
+        assertEquals(203, path.getMoves());
+        List<LngLatDTO> points = path.getPath();
+        for (int i = 1; i < points.size(); i++) {
+            double dLng = points.get(i).getLng() - points.get(i - 1).getLng();
+            double dLat = points.get(i).getLat() - points.get(i - 1).getLat();
+            double angle = Math.toDegrees(Math.atan2(dLat, dLng));
+            assertTrue(Math.abs(angle - 22.5) < 1e-6 || Math.abs(angle - 45) < 1e-6, "Move " + i + " at " + angle);
+        }
+        LngLatDTO last = points.get(points.size() - 1);
+        assertTrue(Math.hypot(last.getLng() - end.getLng(), last.getLat() - end.getLat()) <= STEP_SIZE);
+    }
+
+    /**
+     * Test case 4: Two move orders that reach the same point share one lattice key, as
+     * does that point off by a rounding error, while a neighbouring point does not.
+     */
+    @Test
+    void testMoveOrdersReachingSamePointShareNode() {
+        // Arrange: the 22.5, 67.5 and 112.5 degree moves in both orders, from an absolute start
+        double startLng = -3.19;
+        double startLat = 55.94;
+        double[] forward = flyFrom(startLng, startLat, 1, 3, 5);
+        double[] backward = flyFrom(startLng, startLat, 5, 3, 1);
+
+        // Act
+        long forwardKey = search.latticeKey(forward[0] - startLng, forward[1] - startLat);
+        long backwardKey = search.latticeKey(backward[0] - startLng, backward[1] - startLat);
+        long roundedKey = search.latticeKey(Math.nextUp(forward[0]) - startLng, Math.nextDown(forward[1]) - startLat);
+        long neighbourKey = search.latticeKey(forward[0] + STEP_SIZE - startLng, forward[1] - startLat);
+
+        // Assert
+        assertEquals(forwardKey, backwardKey);
+        assertEquals(forwardKey, roundedKey);
+        assertNotEquals(forwardKey, neighbourKey);
+    }
+
+    /**
+     * Test case 5: On a fixed set of legs among four walls, the search takes exactly as
+     * many moves as the string-keyed search it replaced.
+     */
+    @Test
+    void testMoveCountsMatchPreviousSearch() {
+        // Arrange: walls and legs in steps from (-3.19, 55.94); about half the legs cross a wall
+        RestrictedAreaGeometry walls = RestrictedAreaGeometry.compile(List.of(
+                stepRectangle(4, -3, 5, 3), stepRectangle(-6, 5, -2, 6),
+                stepRectangle(-3, -8, -2, -4), stepRectangle(6, 7, 9, 8)));
+        double[][] legs = {
+            {-4.2, -8.4, 3.6, -10.3}, {0.9, -3.2, -10.6, 0.2}, {-11.1, -1.6, -10.3, -9.8}, {-1.8, 7.8, -9.0, -6.6},
+            {3.1, 10.7, 1.9, -2.5}, {11.4, -10.9, 8.6, -5.0}, {-8.5, -9.2, -4.6, 7.6}, {-7.7, 2.0, 3.3, -3.1},
+            {1.1, -10.5, -10.6, -7.1}, {4.3, -1.7, -4.5, 2.1}, {-1.1, -4.8, 7.1, 4.8}, {-6.1, 1.8, 0.6, 9.0},
+            {5.5, -5.1, 11.5, -9.2}, {-2.0, 6.2, -8.4, -0.3}, {-11.1, 4.0, 6.3, 1.8}, {9.0, -4.5, 4.7, 2.3},
+            {1.9, -1.1, 8.2, 10.7}, {-0.6, 3.9, -10.5, 4.8}, {3.5, 11.8, 7.7, -5.2}, {-2.7, 4.0, -11.5, -0.9},
+            {-8.0, -9.2, -10.6, 6.4}, {-8.9, -6.1, -2.6, 8.9}, {-10.1, -1.2, 1.2, 9.2}, {7.7, 8.7, -5.3, -2.0},
+            {-3.4, 9.2, 11.0, -8.4}, {-7.8, -6.4, -6.4, -0.4}, {2.1, -5.7, -11.9, -1.9}, {-3.1, 1.6, 10.9, 4.6},
+            {0.4, 2.8, 4.2, -10.7}, {-2.6, -2.4, -9.5, 3.2}, {-3.8, -10.7, -12.0, -8.4}, {-9.6, -3.3, -11.4, 9.0},
+            {2.7, -8.4, -5.9, -3.7}, {-3.3, -9.1, 8.4, 11.8}, {-0.8, -0.4, -9.9, -9.5}, {-3.8, -5.6, 7.9, -8.1},
+            {-11.4, 10.8, 0.7, -8.5}, {1.0, -11.4, 0.7, 11.5}, {8.7, 4.7, -5.7, -3.2}, {-8.0, 6.5, 0.8, 6.7}};
+        int[] previousMoves = {
+            8, 12, 8, 16, 13, 6, 17, 12, 12, 9, 12, 10, 7, 9, 18, 8, 13, 10, 17, 10,
+            16, 17, 15, 17, 23, 6, 14, 14, 14, 9, 8, 12, 10, 24, 12, 13, 23, 22, 16, 8};
+
+        for (int i = 0; i < legs.length; i++) {
+            // Act
+            PathResult path = search.search(inSteps(legs[i][0], legs[i][1]), inSteps(legs[i][2], legs[i][3]), 5000, walls);
+
+            // Assert
+            assertEquals(previousMoves[i], path.getMoves(), "Leg " + i);
+        }
+    }
+
+    /**
+     * Test case 6: Every move of a searched detour is bit-identical to a single step from
+     * the previous point, and a search on scratch left behind by one that gave up (and grew
+     * past the retained size) returns exactly the path a fresh engine does.
+     */
+    @Test
+    void testMovesAreSingleStepsAndScratchReuseIsInvisible() {
+        // Arrange: a ring around (20, 0) the first search can never enter, and a wall to detour
+        double s = STEP_SIZE;
+        RestrictedAreaGeometry areas = RestrictedAreaGeometry.compile(List.of(
+                rectangle(14 * s, -6 * s, 26 * s, -4 * s), rectangle(14 * s, 4 * s, 26 * s, 6 * s),
+                rectangle(14 * s, -6 * s, 16 * s, 6 * s), rectangle(24 * s, -6 * s, 26 * s, 6 * s),
+                rectangle(4 * s, -3 * s, 5 * s, 3 * s)));
+        LngLatDTO start = new LngLatDTO(0.0, 0.0);
+        LngLatDTO behindWall = new LngLatDTO(10 * s, 0.0);
+        NextPositionService steps = new NextPositionService();
+
+        // Act
+        PathResult fresh = new AStarSearch(STEP_SIZE, STEP_SIZE).search(start, behindWall, 100, areas);
+        PathResult enclosed = search.search(start, new LngLatDTO(20 * s, 0.0), 5000, areas);
+        PathResult reused = search.search(start, behindWall, 100, areas);
+
+        // Assert
+        assertNull(enclosed);
+        assertEquals(fresh.getMoves(), reused.getMoves());
+        for (int i = 0; i < fresh.getPath().size(); i++) {
+            assertEquals(fresh.getPath().get(i).getLng(), reused.getPath().get(i).getLng());
+            assertEquals(fresh.getPath().get(i).getLat(), reused.getPath().get(i).getLat());
+        }
+        List<LngLatDTO> points = reused.getPath();
+        for (int i = 1; i < points.size(); i++) {
+            LngLatDTO from = points.get(i - 1);
+            LngLatDTO to = points.get(i);
+            boolean singleStep = false;
+            for (int k = 0; k < 16 && !singleStep; k++) {
+                LngLatDTO next = steps.nextPosition(new MovementVectorDTO(from, k * 22.5));
+                singleStep = next.getLng().equals(to.getLng()) && next.getLat().equals(to.getLat());
+            }
+            assertTrue(singleStep, "Move " + i + " is not one step");
+        }
+    }
+
+    /**
+     * Test case 7: Randomized legs with a small block near the straight line. Whenever
+     * the fast path answers, none of its moves touches the block, it is never longer than
+     * the search on its own, and it is what a full search returns. Both the fast path and
+     * the search get used.
+     */
+    @Test
+    void testStraightLineAgainstSearchNearObstacles() {
+        // Arrange
+        Random random = new Random(24);
+        int straight = 0;
+        int searched = 0;
+
+        for (int trial = 0; trial < 300; trial++) {
+            // A leg of 8 to 40 steps, and a block up to 1.5 steps wide whose centre is at
+            // most 1.5 steps to the side of the line, somewhere along its middle
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double length = 8 + random.nextDouble() * 32;
+            double along = length * (0.2 + random.nextDouble() * 0.6);
+            double aside = (random.nextDouble() * 3 - 1.5);
+            double half = 0.1 + random.nextDouble() * 0.65;
+            double cx = along * Math.cos(bearing) - aside * Math.sin(bearing);
+            double cy = along * Math.sin(bearing) + aside * Math.cos(bearing);
+            RestrictedAreaGeometry block = RestrictedAreaGeometry.compile(List.of(
+                    stepRectangle(cx - half, cy - half, cx + half, cy + half)));
+            LngLatDTO start = inSteps(0, 0);
+            LngLatDTO end = inSteps(length * Math.cos(bearing), length * Math.sin(bearing));
+
+            // Act
+            PathResult line = search.straightLine(start, end, 5000, block);
+            PathResult graph = search.searchGraph(start, end, 5000, block);
+            PathResult full = search.search(start, end, 5000, block);
+
+            // Assert
+            if (line == null) {
+                searched++;
+                continue;
+            }
+            straight++;
+            List<LngLatDTO> points = line.getPath();
+            for (int i = 1; i < points.size(); i++) {
+                LngLatDTO a = points.get(i - 1);
+                LngLatDTO b = points.get(i);
+                assertFalse(block.crossesSegment(a.getLng(), a.getLat(), b.getLng(), b.getLat()),
+                        "Trial " + trial + " move " + i + " touches the block");
+            }
+            assertTrue(graph == null || line.getMoves() <= graph.getMoves(), "Trial " + trial);
+            assertEquals(line.getMoves(), full.getMoves(), "Trial " + trial);
+        }
+        assertTrue(straight > 0, "No leg took the fast path");
+        assertTrue(searched > 0, "No leg needed a search");
+    }
+
+    private static double[] flyFrom(double lng, double lat, int... sectors) {
+        for (int sector : sectors) {
+            lng += STEP_SIZE * Math.cos(sector * Math.PI / 8);
+            lat += STEP_SIZE * Math.sin(sector * Math.PI / 8);
+        }
+        return new double[] {lng, lat};
+    }
+
+    private static LngLatDTO inSteps(double lngSteps, double latSteps) {
+        return new LngLatDTO(-3.19 + lngSteps * STEP_SIZE, 55.94 + latSteps * STEP_SIZE);
+    }
+
+    private static RestrictedAreaDTO stepRectangle(double minLng, double minLat, double maxLng, double maxLat) {
+        LngLatDTO min = inSteps(minLng, minLat);
+        LngLatDTO max = inSteps(maxLng, maxLat);
+        return rectangle(min.getLng(), min.getLat(), max.getLng(), max.getLat());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ilp.restapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.client.ReferenceSnapshot;
+import com.ilp.restapi.client.ServicePointSchedule;
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.MedDispatchRecDTO;
+import com.ilp.restapi.data.RequirementsDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+import com.ilp.restapi.world.WorldModel;
+
+class DispatchFeasibilityTest {
+
+    private static final double STEP_SIZE = 0.00015;
+
+    // 2024-01-01 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    private DispatchFeasibility feasibility;
+
+    @BeforeEach
+    void setUp() {
+        // Drones 1-3 work Monday 9-17 at the service point, drone 4 has no schedule
+        int from = WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(9, 0));
+        int until = WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(17, 0));
+        int[] window = {from, until};
+        ServicePointSchedule schedule = new ServicePointSchedule(1,
+                new int[] {1, 2, 3}, new int[][] {window, window, window});
+
+        ServicePointDTO sp = new ServicePointDTO();
+        sp.setId(1);
+        sp.setLocation(new LngLatDTO(0.0, 0.0));
+
+        ReferenceSnapshot snapshot = new ReferenceSnapshot(1L, Instant.now(),
+                List.of(drone(1, 4.0, true, 0.01),
+                        drone(2, 12.0, false, 0.01),
+                        drone(3, 12.0, true, 0.10),
+                        drone(4, 12.0, true, 0.01)),
+                List.of(schedule), List.of(sp), List.of());
+
+        feasibility = new DispatchFeasibility(WorldModel.build(snapshot), STEP_SIZE);
+    }
+
+    /**
+     * Test case 1: Capacity, cooling, availability and the cost estimate all narrow the
+     * drones that can take every dispatch.
+     */
+    @Test
+    void testEveryConstraintNarrowsTheFleet() {
+        // 0.0015 away: 20 round-trip moves
+        MedDispatchRecDTO light = dispatch(LocalTime.of(10, 0), null, false, null);
+        MedDispatchRecDTO heavyCold = dispatch(LocalTime.of(12, 0), 8.0, true, null);
+        MedDispatchRecDTO cheap = dispatch(LocalTime.of(12, 0), null, false, 1.0);
+
+        assertEquals(List.of(1, 2, 3), ids(feasibility.feasibleForAll(List.of(light))),
+                "Drone 4 is never available.");
+        assertEquals(List.of(3), ids(feasibility.feasibleForAll(List.of(light, heavyCold))));
+        assertEquals(List.of(1, 2), ids(feasibility.feasibleForAll(List.of(light, cheap))),
+                "20 moves at 0.10 is over the 1.0 limit.");
+        assertEquals(List.of(), ids(feasibility.feasibleForAll(List.of(heavyCold, cheap))));
+    }
+
+    /**
+     * Test case 2: A dispatch outside the window, or without a time, matches no drone.
+     */
+    @Test
+    void testUnavailableTimesMatchNothing() {
+        assertEquals(List.of(), ids(feasibility.feasibleForAll(
+                List.of(dispatch(LocalTime.of(17, 0, 0, 1), null, false, null)))));
+        assertEquals(List.of(), ids(feasibility.feasibleForAll(
+                List.of(dispatch(null, null, false, null)))));
+    }
+
+    private static MedDispatchRecDTO dispatch(LocalTime time, Double capacity, boolean cooling, Double maxCost) {
+        RequirementsDTO req = new RequirementsDTO();
+        req.setCapacity(capacity);
+        req.setCooling(cooling);
+        req.setMaxCost(maxCost);
+
+        MedDispatchRecDTO rec = new MedDispatchRecDTO();
+        rec.setDate(MONDAY);
+        rec.setTime(time);
+        rec.setRequirements(req);
+        rec.setDelivery(new LngLatDTO(0.0015, 0.0));
+        return rec;
+    }
+
+    private static DroneDTO drone(int id, double capacity, boolean cooling, double costPerMove) {
+        CapabilityDTO cap = new CapabilityDTO(cooling, false);
+        cap.setCapacity(capacity);
+        cap.setMaxMoves(2000);
+        cap.setCostPerMove(costPerMove);
+        cap.setCostInitial(0.0);
+        cap.setCostFinal(0.0);
+        return new DroneDTO("Drone " + id, id, cap);
+    }
+
+    private static List<Integer> ids(BitSet feasible) {
+        List<Integer> out = new ArrayList<>();
+        for (int i = feasible.nextSetBit(0); i >= 0; i = feasible.nextSetBit(i + 1)) {
+            out.add(i + 1);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,296 @@
+package com.ilp.restapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static com.ilp.restapi.world.RestrictedAreaFixtures.rectangle;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ilp.restapi.client.ReferenceSnapshot;
+import com.ilp.restapi.client.ServicePointSchedule;
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CalcDeliveryPathResponseDTO;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DeliveryFlightPathDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.DronePathDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.MedDispatchRecDTO;
+import com.ilp.restapi.data.RequirementsDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+import com.ilp.restapi.query.QueryCompiler;
+import com.ilp.restapi.query.QueryPage;
+import com.ilp.restapi.query.QueryResultCache;
+import com.ilp.restapi.world.RestrictedAreaGeometry;
+import com.ilp.restapi.world.WorldModel;
+import com.ilp.restapi.world.WorldModelHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DroneServiceTest {
+
+    private static final double STEP_SIZE = 0.00015;
+
+    // 2024-01-01 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    private WorldModelHolder worlds;
+    private DroneService service;
+
+    @BeforeEach
+    void setUp() {
+        worlds = mock(WorldModelHolder.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new DroneService(worlds, new QueryCompiler(16), new QueryResultCache(16, registry),
+                new LegPathCache(200_000, registry));
+        useWorld(1L, List.of(drone(1, 4.0, 0.01), drone(2, 8.0, 0.02), drone(3, 12.0, 0.03)), List.of());
+    }
+
+    /**
+     * Test case 1: A batch returns details in request order, one entry per requested id
+     * (duplicates included), and leaves out unknown and null ids.
+     */
+    @Test
+    void testBatchDetailsKeepRequestOrder() {
+        // Act
+        List<DroneDTO> drones = service.findDronesByIds(Arrays.asList(3, 99, 1, null, 3));
+
+        // Assert
+        assertEquals(List.of(3, 1, 3), drones.stream().map(DroneDTO::getId).toList());
+        assertEquals(List.of(), service.findDronesByIds(List.of()));
+        assertEquals(List.of(), service.findDronesByIds(List.of(-1, 99)));
+    }
+
+    /**
+     * Test case 2: The largest possible limit returns the whole result without a next
+     * cursor, and smaller limits page through it in order.
+     */
+    @Test
+    void testLimitUpToIntegerMaxPages() {
+        // Act
+        QueryPage everything = service.queryPage(List.of(), "capacity", "desc", Integer.MAX_VALUE, null);
+        QueryPage first = service.queryPage(List.of(), "capacity", "desc", 2, null);
+        QueryPage rest = service.queryPage(List.of(), "capacity", "desc", 2, first.getNextCursor());
+
+        // Assert
+        assertEquals(List.of(3, 2, 1), everything.getIds());
+        assertNull(everything.getNextCursor());
+        assertEquals(List.of(3, 2), first.getIds());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of(1), rest.getIds());
+        assertNull(rest.getNextCursor());
+    }
+
+    /**
+     * Test case 3: A malformed cursor, or one issued for another order, is rejected with
+     * 400; a cursor from an older reference data version is gone (410).
+     */
+    @Test
+    void testBadAndStaleCursors() {
+        // Arrange
+        String cursor = service.queryPage(List.of(), "capacity", "asc", 1, null).getNextCursor();
+
+        // Act
+        ResponseStatusException garbage = assertThrows(ResponseStatusException.class,
+                () -> service.queryPage(List.of(), "capacity", "asc", 1, "not-a-cursor"));
+        ResponseStatusException otherOrder = assertThrows(ResponseStatusException.class,
+                () -> service.queryPage(List.of(), "costPerMove", "desc", 1, cursor));
+        useWorld(2L, List.of(drone(1, 4.0, 0.01), drone(2, 8.0, 0.02)), List.of());
+        ResponseStatusException stale = assertThrows(ResponseStatusException.class,
+                () -> service.queryPage(List.of(), "capacity", "asc", 1, cursor));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, garbage.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, otherOrder.getStatusCode());
+        assertEquals(HttpStatus.GONE, stale.getStatusCode());
+    }
+
+    /**
+     * Test case 4: Golden plan for a fleet where three drones share one capability class.
+     * Once the short-range class finds no route for what is left, its other members are
+     * skipped. The plan, moves and cost are pinned: the dispatches drone 4 would carry
+     * while drone 1's route is chosen stay unassigned and drone 4 flies them in the next
+     * round. Every move is one step that stays out of the wall.
+     */
+    @Test
+    void testCalcDeliveryPathGolden() {
+        // Arrange: drones 1-3 are one class (60 moves), drone 4 carries 12 with cooling;
+        // a wall north-east of the base cuts the straight line between it and dispatch 13
+        CapabilityDTO big = new CapabilityDTO(true, false);
+        big.setCapacity(12.0);
+        big.setMaxMoves(2000);
+        big.setCostPerMove(0.05);
+        big.setCostInitial(2.0);
+        big.setCostFinal(2.0);
+        useWorld(1L, List.of(shortRange(1), shortRange(2), shortRange(3), new DroneDTO("Drone 4", 4, big)),
+                List.of(rectangle(8 * STEP_SIZE, 4 * STEP_SIZE, 10 * STEP_SIZE, 20 * STEP_SIZE)));
+        List<MedDispatchRecDTO> dispatches = List.of(
+                dispatch(11, 2.0, false, 0, 20),
+                dispatch(12, 10.0, false, -15, 0),
+                dispatch(13, 3.0, true, 16, 12),
+                dispatch(14, 3.0, false, 0, -40),
+                dispatch(15, 1.0, false, 12, 0));
+
+        // Act
+        CalcDeliveryPathResponseDTO plan = service.calcDeliveryPath(dispatches);
+
+        // Assert
+        List<String> routes = new ArrayList<>();
+        for (DronePathDTO dp : plan.getDronePaths()) {
+            routes.add(dp.getDroneId() + ":" + dp.getDeliveries().stream()
+                    .map(d -> d.getDeliveryId() + "/" + d.getFlightPath().size()).toList());
+        }
+        assertEquals(List.of("1:[15/14, 11/25, null/20]", "4:[12/16, 14/44, 13/56, null/21]"), routes);
+        assertEquals(184, plan.getTotalMoves());
+        assertEquals(13.04, plan.getTotalCost(), 1e-9);
+        RestrictedAreaGeometry wall = worlds.current().restrictedAreas();
+        for (DronePathDTO dp : plan.getDronePaths()) {
+            for (DeliveryFlightPathDTO leg : dp.getDeliveries()) {
+                List<LngLatDTO> path = leg.getFlightPath();
+                for (int i = 1; i < path.size(); i++) {
+                    LngLatDTO a = path.get(i - 1);
+                    LngLatDTO b = path.get(i);
+                    double step = Math.hypot(b.getLng() - a.getLng(), b.getLat() - a.getLat());
+                    assertTrue(step == 0 || Math.abs(step - STEP_SIZE) < 1e-12, "Move of " + step);
+                    assertFalse(wall.contains(b), "Path enters the wall at " + b.getLng() + "," + b.getLat());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test case 5: A service point whose only way to a delivery is a narrow corridor is
+     * ranked by its straight-line distance, not last, so the nearer base serves it
+     * through the corridor.
+     */
+    @Test
+    void testNarrowCorridorKeepsStraightLineRank() {
+        // Arrange: base 1 at (0, 0) behind a corridor 3 steps wide, base 2 at (250, 4) with a
+        // clear line; the delivery at (100, 4) is 100 steps from base 1 and 150 from base 2
+        double s = STEP_SIZE;
+        List<RestrictedAreaDTO> blocks = List.of(
+                rectangle(5 * s, -60 * s, 150 * s, 2.5 * s),
+                rectangle(5 * s, 5.5 * s, 150 * s, 60 * s));
+        useWorld(1L, blocks, List.of(new LngLatDTO(0.0, 0.0), new LngLatDTO(250 * s, 4 * s)),
+                List.of(List.of(drone(1, 4.0, 0.01)), List.of(drone(2, 4.0, 0.01))));
+
+        // Act
+        CalcDeliveryPathResponseDTO plan = service.calcDeliveryPath(List.of(dispatch(21, 1.0, false, 100, 4)));
+
+        // Assert
+        assertEquals(1, plan.getDronePaths().size());
+        DronePathDTO dronePath = plan.getDronePaths().get(0);
+        assertEquals("1", dronePath.getDroneId());
+        // 100 moves out along the corridor, 99 back to within a step of the base
+        assertEquals(199, plan.getTotalMoves());
+    }
+
+    /**
+     * Test case 6: A base whose straight line to the delivery passes a wall through a gap
+     * narrower than a coarse grid cell still ranks by that straight line. A grid that
+     * misses the gap only sees the long way round the wall, which is finite but far too
+     * long, and would hand the delivery to a base that is further away.
+     */
+    @Test
+    void testNarrowGapKeepsStraightLineRank() {
+        // Arrange: base 1 at (0, 0) behind a wall 10 steps thick with a 3-step gap that no
+        // 8-step cell centre falls in, base 2 at (60, 4) with a clear line; the delivery at
+        // (20, 4) is 20 steps from base 1 through the gap, 40 from base 2 and about 100
+        // from base 1 round the ends of the wall
+        double s = STEP_SIZE;
+        List<RestrictedAreaDTO> wall = List.of(
+                rectangle(4 * s, -50 * s, 14 * s, 2.5 * s),
+                rectangle(4 * s, 5.5 * s, 14 * s, 50 * s));
+        useWorld(1L, wall, List.of(new LngLatDTO(0.0, 0.0), new LngLatDTO(60 * s, 4 * s)),
+                List.of(List.of(drone(1, 4.0, 0.01)), List.of(drone(2, 4.0, 0.01))));
+
+        // Act
+        CalcDeliveryPathResponseDTO plan = service.calcDeliveryPath(List.of(dispatch(21, 1.0, false, 20, 4)));
+
+        // Assert
+        assertEquals(1, plan.getDronePaths().size());
+        assertEquals("1", plan.getDronePaths().get(0).getDroneId());
+        assertTrue(plan.getTotalMoves() < 60, "Moves " + plan.getTotalMoves());
+    }
+
+    // Every drone is based at service point 1 at (0, 0) and works all of Monday
+    private void useWorld(long version, List<DroneDTO> fleet, List<RestrictedAreaDTO> areas) {
+        useWorld(version, areas, List.of(new LngLatDTO(0.0, 0.0)), List.of(fleet));
+    }
+
+    // Service point i + 1 is at bases[i] with fleets[i]; every drone works all of Monday
+    private void useWorld(long version, List<RestrictedAreaDTO> areas, List<LngLatDTO> bases, List<List<DroneDTO>> fleets) {
+        List<DroneDTO> drones = new ArrayList<>();
+        List<ServicePointSchedule> schedules = new ArrayList<>();
+        List<ServicePointDTO> servicePoints = new ArrayList<>();
+        for (int b = 0; b < bases.size(); b++) {
+            List<DroneDTO> fleet = fleets.get(b);
+            int[] ids = new int[fleet.size()];
+            int[][] windows = new int[fleet.size()][];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = fleet.get(i).getId();
+                windows[i] = new int[] {
+                        WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.MIN),
+                        WeeklyWindows.secondOfWeek(DayOfWeek.TUESDAY, LocalTime.MIN)};
+            }
+            ServicePointDTO sp = new ServicePointDTO();
+            sp.setId(b + 1);
+            sp.setLocation(bases.get(b));
+            drones.addAll(fleet);
+            schedules.add(new ServicePointSchedule(b + 1, ids, windows));
+            servicePoints.add(sp);
+        }
+
+        WorldModel world = WorldModel.build(new ReferenceSnapshot(version, Instant.now(), drones,
+                schedules, servicePoints, areas));
+        when(worlds.current()).thenReturn(world);
+    }
+
+    private static DroneDTO shortRange(int id) {
+        DroneDTO drone = drone(id, 4.0, 0.01);
+        drone.getCapability().setMaxMoves(60);
+        return drone;
+    }
+
+    private static MedDispatchRecDTO dispatch(int id, double capacity, boolean cooling, int lngSteps, int latSteps) {
+        RequirementsDTO req = new RequirementsDTO();
+        req.setCapacity(capacity);
+        req.setCooling(cooling);
+
+        MedDispatchRecDTO rec = new MedDispatchRecDTO();
+        rec.setId(id);
+        rec.setDate(MONDAY);
+        rec.setTime(LocalTime.of(10, 0));
+        rec.setRequirements(req);
+        rec.setDelivery(new LngLatDTO(lngSteps * STEP_SIZE, latSteps * STEP_SIZE));
+        return rec;
+    }
+
+    private static DroneDTO drone(int id, double capacity, double costPerMove) {
+        CapabilityDTO cap = new CapabilityDTO(false, false);
+        cap.setCapacity(capacity);
+        cap.setMaxMoves(2000);
+        cap.setCostPerMove(costPerMove);
+        cap.setCostInitial(1.0);
+        cap.setCostFinal(1.0);
+        return new DroneDTO("Drone " + id, id, cap);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ilp.restapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.PathResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LegPathCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private LegPathCache cache;
+    private AtomicInteger plans;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new LegPathCache(10, registry);
+        cache.registerMeters();
+        plans = new AtomicInteger();
+    }
+
+    /**
+     * Test case 1: A repeated leg is answered from the cache with an unmodifiable path;
+     * an endpoint in the same cell but not bit-for-bit equal is planned again.
+     */
+    @Test
+    void testRepeatedLegHitsCache() {
+        // Arrange
+        LngLatDTO start = new LngLatDTO(-3.19, 55.94);
+        LngLatDTO end = new LngLatDTO(-3.18, 55.94);
+        LngLatDTO nearEnd = new LngLatDTO(Math.nextUp(-3.18), 55.94);
+
+        // Act
+        PathResult first = cache.get(start, end, 2000, 1, () -> plan(3));
+        PathResult second = cache.get(new LngLatDTO(-3.19, 55.94), new LngLatDTO(-3.18, 55.94), 2000, 1, () -> plan(3));
+        cache.get(start, nearEnd, 2000, 1, () -> plan(3));
+
+        // Assert
+        assertEquals(2, plans.get());
+        assertSamePoints(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> second.getPath().add(start));
+        assertEquals(1.0, registry.get("ilp.route.leg.cache.hits").functionCounter().count());
+        assertEquals(2.0, registry.get("ilp.route.leg.cache.misses").functionCounter().count());
+    }
+
+    /**
+     * Test case 2: Legs are evicted least recently used once the total number of path
+     * points exceeds the bound, and a newer version drops every leg.
+     */
+    @Test
+    void testPointBoundAndVersionChange() {
+        // Arrange
+        LngLatDTO a = new LngLatDTO(0.0, 0.0);
+        LngLatDTO b = new LngLatDTO(1.0, 0.0);
+        LngLatDTO c = new LngLatDTO(2.0, 0.0);
+
+        // Act
+        cache.get(a, b, 100, 1, () -> plan(4));
+        cache.get(b, c, 100, 1, () -> plan(4));
+        cache.get(a, b, 100, 1, () -> plan(4));
+        cache.get(a, c, 100, 1, () -> plan(4));   // 12 points: evicts b -> c
+        int sizeBefore = cache.size();
+        cache.get(a, b, 100, 2, () -> plan(4));
+
+        // Assert
+        assertEquals(2, sizeBefore);
+        assertEquals(1, cache.size());
+        assertEquals(4, plans.get());
+    }
+
+    /**
+     * Test case 3: Moving a point of a returned path, as a response may, changes neither
+     * the cached leg nor the path another caller gets.
+     */
+    @Test
+    void testReturnedPointsAreCopies() {
+        // Arrange
+        LngLatDTO start = new LngLatDTO(0.0, 0.0);
+        LngLatDTO end = new LngLatDTO(1.0, 0.0);
+        PathResult planned = plan(3);
+        PathResult first = cache.get(start, end, 100, 1, () -> planned);
+
+        // Act
+        first.getPath().get(1).setLng(9.0);
+        planned.getPath().get(2).setLat(9.0);
+        PathResult second = cache.get(start, end, 100, 1, () -> plan(3));
+
+        // Assert
+        assertEquals(1, plans.get());
+        assertEquals(1.0, second.getPath().get(1).getLng());
+        assertEquals(0.0, second.getPath().get(2).getLat());
+        assertNotSame(first.getPath().get(0), second.getPath().get(0));
+    }
+
+    private static void assertSamePoints(PathResult expected, PathResult actual) {
+        assertEquals(expected.getPath().size(), actual.getPath().size());
+        for (int i = 0; i < expected.getPath().size(); i++) {
+            assertEquals(expected.getPath().get(i).getLng(), actual.getPath().get(i).getLng());
+            assertEquals(expected.getPath().get(i).getLat(), actual.getPath().get(i).getLat());
+        }
+    }
+
+    private PathResult plan(int points) {
+        plans.incrementAndGet();
+        List<LngLatDTO> path = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            path.add(new LngLatDTO((double) i, 0.0));
+        }
+        PathResult result = new PathResult();
+        result.setPath(path);
+        result.setMoves(points - 1);
+        return result;
+    }
+}
@@ -0,0 +1,241 @@
+package com.ilp.restapi.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.QueryConditionDTO;
+import com.ilp.restapi.query.CompiledQuery;
+import com.ilp.restapi.query.QueryCompiler;
+import com.ilp.restapi.query.QueryCursor;
+import com.ilp.restapi.query.QueryOrder;
+
+class DroneAttributeIndexTest {
+
+    private static final String[] OPERATORS = {"=", "!=", "<", ">", ">=", "<=", "between", "in"};
+
+    private QueryCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new QueryCompiler(16);
+    }
+
+    /**
+     * Test case 1: Every attribute and operator selects exactly the drones the per-drone
+     * predicate matches, including duplicates, missing capabilities, -0.0 and NaN, and
+     * the planner's estimate is never below the number selected.
+     */
+    @Test
+    void testIndexMatchesPredicate() {
+        // Arrange
+        Random random = new Random(42);
+        List<DroneDTO> fleet = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            CapabilityDTO cap = null;
+            if (random.nextInt(10) > 0) {
+                cap = new CapabilityDTO(random.nextBoolean(), random.nextBoolean());
+                cap.setCapacity(pick(random));
+                cap.setMaxMoves(random.nextInt(5) * 500);
+                cap.setCostPerMove(pick(random));
+                cap.setCostInitial(pick(random));
+                cap.setCostFinal(pick(random));
+            }
+            String name = random.nextInt(20) == 0 ? null : " Drone " + random.nextInt(10) + " ";
+            fleet.add(new DroneDTO(name, random.nextInt(50), cap));
+        }
+        DroneAttributeIndex index = new DroneAttributeIndex(fleet.toArray(new DroneDTO[0]));
+
+        String[][] attributes = {
+                {"id", "0", "7", "49", "-3", "7,20", "20,7", "3,7,11"},
+                {"maxMoves", "0", "500", "1200", "2000", "500,1500"},
+                {"capacity", "0", "-0.0", "4.0", "NaN", "0.0,4", "-0.0,-0.0", "1,NaN"},
+                {"costPerMove", "0.0", "0.5", "Infinity", "0.5,Infinity"},
+                {"costInitial", "-0.0", "2", "NaN,2"},
+                {"costFinal", "1.0", "NaN", "NaN,1.0"},
+                {"cooling", "true", "false"},
+                {"heating", "true", "false"},
+                {"name", "drone 3", "DRONE 7", "nothing", "drone 1,DRONE 2"}};
+
+        // Act / Assert
+        for (String[] attribute : attributes) {
+            for (int v = 1; v < attribute.length; v++) {
+                for (String op : OPERATORS) {
+                    CompiledQuery query = compiler.compile(attribute[0], op, attribute[v]);
+                    BitSet selected = index.select(query);
+                    assertEquals(scan(fleet, query), selected,
+                            attribute[0] + " " + op + " " + attribute[v]);
+                    if (!query.isUnsatisfiable()) {
+                        int estimate = index.estimate(query.clauses().get(0));
+                        assertTrue(estimate < 0 || estimate >= selected.cardinality(),
+                                "Estimate is an upper bound for " + attribute[0] + " " + op + " " + attribute[v]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test case 2: Planned queries with OR groups select exactly what the predicate does,
+     * whichever clauses the planner answers from the index and whichever it probes.
+     */
+    @Test
+    void testPlannedQueriesMatchPredicate() {
+        // Arrange
+        Random random = new Random(7);
+        List<DroneDTO> fleet = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            CapabilityDTO cap = new CapabilityDTO(random.nextBoolean(), random.nextInt(4) == 0);
+            cap.setCapacity((double) random.nextInt(12));
+            cap.setMaxMoves(random.nextInt(3000));
+            cap.setCostPerMove(random.nextInt(100) / 100.0);
+            cap.setCostInitial(1.0);
+            cap.setCostFinal(1.0);
+            fleet.add(new DroneDTO("Drone " + i, i, cap));
+        }
+        DroneAttributeIndex index = new DroneAttributeIndex(fleet.toArray(new DroneDTO[0]));
+
+        QueryConditionDTO group = new QueryConditionDTO();
+        group.setAnyOf(List.of(condition("heating", "=", "true"), condition("id", "<", "20")));
+
+        List<List<QueryConditionDTO>> queries = List.of(
+                List.of(condition("id", "=", "17"), condition("capacity", ">=", "3"), group),
+                List.of(condition("maxMoves", "between", "100,2900"), condition("cooling", "!=", "false")),
+                List.of(group, condition("name", "in", "drone 5,drone 250,DRONE 3")),
+                List.of(condition("costPerMove", "<", "0.5"), condition("capacity", "<=", "6"), group));
+
+        // Act / Assert
+        for (List<QueryConditionDTO> conditions : queries) {
+            CompiledQuery query = compiler.compile(conditions);
+            assertEquals(scan(fleet, query), index.select(query));
+        }
+    }
+
+    /**
+     * Test case 3: A column with a null value is not indexed; its condition is evaluated
+     * per drone on the candidates left by the indexed conditions.
+     */
+    @Test
+    void testNullColumnFallsBackToPredicate() {
+        // Arrange
+        CapabilityDTO light = new CapabilityDTO(true, false);
+        light.setCapacity(2.0);
+        CapabilityDTO unknown = new CapabilityDTO(false, false);
+        DroneDTO[] fleet = {new DroneDTO("A", 1, light), new DroneDTO("B", 2, unknown)};
+        DroneAttributeIndex index = new DroneAttributeIndex(fleet);
+
+        // Act
+        BitSet hits = index.select(compiler.compile(List.of(
+                condition("cooling", "=", "true"),
+                condition("capacity", "<", "4"))));
+
+        // Assert
+        assertEquals(BitSet.valueOf(new long[] {1L}), hits);
+    }
+
+    /**
+     * Test case 4: Paging through a sorted query with cursors yields the full result in
+     * (value, fleet order) order, missing values last, from the column or the heap.
+     */
+    @Test
+    void testPagesFollowSortOrder() {
+        // Arrange
+        Random random = new Random(3);
+        List<DroneDTO> fleet = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            CapabilityDTO cap = null;
+            if (random.nextInt(8) > 0) {
+                cap = new CapabilityDTO(random.nextBoolean(), false);
+                cap.setCapacity(pick(random));
+                cap.setMaxMoves(random.nextInt(4) * 500);
+                cap.setCostPerMove(pick(random));
+                // A null value keeps costInitial out of the index, so it is paged with a heap
+                cap.setCostInitial(random.nextInt(30) == 0 ? null : pick(random));
+                cap.setCostFinal(pick(random));
+            }
+            fleet.add(new DroneDTO("Drone " + i, random.nextInt(40), cap));
+        }
+        DroneAttributeIndex index = new DroneAttributeIndex(fleet.toArray(new DroneDTO[0]));
+        CompiledQuery query = compiler.compile("cooling", "=", "true");
+        BitSet hits = index.select(query);
+
+        // Act / Assert
+        for (String orderBy : new String[] {null, "id", "maxMoves", "capacity", "costPerMove", "costInitial"}) {
+            for (String direction : new String[] {"asc", "desc"}) {
+                QueryOrder order = QueryOrder.parse(orderBy, direction);
+                if (order == null) continue;   // fleet order has no descending form
+
+                List<Integer> paged = new ArrayList<>();
+                QueryCursor after = null;
+                while (true) {
+                    int[] page = index.page(hits, order, after, 7);
+                    for (int i : page) paged.add(i);
+                    if (page.length < 7) break;
+                    String token = index.cursorAt(order, page[page.length - 1], 1).encode(order);
+                    after = QueryCursor.decode(token, order);
+                }
+
+                assertEquals(sorted(fleet, hits, orderBy, order.isDescending()), paged, orderBy + " " + direction);
+            }
+        }
+    }
+
+    // Reference order: drones with a (non-NaN) value by value, then the rest; ties in fleet order
+    private static List<Integer> sorted(List<DroneDTO> fleet, BitSet hits, String orderBy, boolean descending) {
+        List<Integer> with = new ArrayList<>();
+        List<Integer> without = new ArrayList<>();
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            if (orderBy == null || value(fleet.get(i), orderBy) != null) with.add(i); else without.add(i);
+        }
+        if (orderBy != null) {
+            Comparator<Integer> byValue = (a, b) -> Double.compare(value(fleet.get(a), orderBy), value(fleet.get(b), orderBy));
+            with.sort(descending ? byValue.reversed() : byValue);
+        }
+        with.addAll(without);
+        return with;
+    }
+
+    private static Double value(DroneDTO drone, String orderBy) {
+        if (orderBy.equals("id")) return (double) drone.getId();
+        CapabilityDTO cap = drone.getCapability();
+        if (cap == null) return null;
+        Double value = switch (orderBy) {
+            case "maxMoves" -> (double) cap.getMaxMoves();
+            case "capacity" -> cap.getCapacity();
+            case "costPerMove" -> cap.getCostPerMove();
+            default -> cap.getCostInitial();
+        };
+        return value == null || value.isNaN() ? null : value;
+    }
+
+    private static Double pick(Random random) {
+        double[] values = {0.0, -0.0, 0.5, 1.0, 2.0, 4.0, 8.0, Double.NaN, Double.POSITIVE_INFINITY};
+        return values[random.nextInt(values.length)];
+    }
+
+    private static BitSet scan(List<DroneDTO> fleet, CompiledQuery query) {
+        BitSet out = new BitSet();
+        for (int i = 0; i < fleet.size(); i++) {
+            if (query.matches(fleet.get(i))) out.set(i);
+        }
+        return out;
+    }
+
+    private static QueryConditionDTO condition(String attribute, String operator, String value) {
+        QueryConditionDTO c = new QueryConditionDTO();
+        c.setAttribute(attribute);
+        c.setOperator(operator);
+        c.setValue(value);
+        return c;
+    }
+}
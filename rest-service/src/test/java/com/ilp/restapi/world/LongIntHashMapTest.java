@@ -0,0 +1,81 @@
+package com.ilp.restapi.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+
+    /**
+     * Test case 1: Keys packed from negative and positive axis offsets survive several
+     * rounds of growth, and absent keys read as -1.
+     */
+    @Test
+    void testGrowKeepsEveryKey() {
+        // Arrange
+        LongIntHashMap map = new LongIntHashMap(4);
+        int capacity = map.capacity();
+
+        // Act: a 60 x 60 block of lattice keys around the origin
+        int value = 0;
+        for (long x = -30; x < 30; x++) {
+            for (long y = -30; y < 30; y++) {
+                map.putIfAbsent((x << 32) | (y & 0xFFFF_FFFFL), value++);
+            }
+        }
+
+        // Assert
+        assertTrue(map.capacity() > capacity);
+        value = 0;
+        for (long x = -30; x < 30; x++) {
+            for (long y = -30; y < 30; y++) {
+                assertEquals(value++, map.get((x << 32) | (y & 0xFFFF_FFFFL)));
+            }
+        }
+        assertEquals(-1, map.get(30L << 32));
+    }
+
+    /**
+     * Test case 2: After clear the map is empty but keeps its capacity, so the next
+     * search reuses it without growing again.
+     */
+    @Test
+    void testClearKeepsCapacity() {
+        // Arrange
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (int i = 0; i < 1000; i++) {
+            map.putIfAbsent(i, i);
+        }
+        int capacity = map.capacity();
+
+        // Act
+        map.clear();
+        map.putIfAbsent(7L, 1);
+
+        // Assert
+        assertEquals(-1, map.get(5L));
+        assertEquals(1, map.get(7L));
+        assertEquals(capacity, map.capacity());
+    }
+
+    /**
+     * Test case 3: A key that is already present keeps its first value, as the world
+     * model relies on for duplicate ids.
+     */
+    @Test
+    void testPutIfAbsentKeepsFirstValue() {
+        // Arrange
+        LongIntHashMap map = new LongIntHashMap(2);
+
+        // Act
+        boolean first = map.putIfAbsent(42L, 0);
+        boolean second = map.putIfAbsent(42L, 1);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(0, map.get(42L));
+    }
+}
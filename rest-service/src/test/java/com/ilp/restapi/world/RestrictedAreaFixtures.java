@@ -0,0 +1,27 @@
+package com.ilp.restapi.world;
+
+import java.util.List;
+
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+
+/**
+ * Restricted areas shared by the path finding and geometry tests.
+ */
+public final class RestrictedAreaFixtures {
+
+    private RestrictedAreaFixtures() {
+    }
+
+    /** Axis-aligned rectangle as a closed polygon, counter-clockwise from its minimum corner. */
+    public static RestrictedAreaDTO rectangle(double minLng, double minLat, double maxLng, double maxLat) {
+        RestrictedAreaDTO area = new RestrictedAreaDTO();
+        area.setVertices(List.of(
+                new LngLatDTO(minLng, minLat),
+                new LngLatDTO(maxLng, minLat),
+                new LngLatDTO(maxLng, maxLat),
+                new LngLatDTO(minLng, maxLat),
+                new LngLatDTO(minLng, minLat)));
+        return area;
+    }
+}
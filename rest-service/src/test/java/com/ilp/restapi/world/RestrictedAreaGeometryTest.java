@@ -0,0 +1,52 @@
+package com.ilp.restapi.world;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.ilp.restapi.world.RestrictedAreaFixtures.rectangle;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RestrictedAreaGeometryTest {
+
+    // A wall one wide and two tall, from (4, -1) to (5, 1)
+    private final RestrictedAreaGeometry wall = RestrictedAreaGeometry.compile(List.of(rectangle(4, -1, 5, 1)));
+
+    /**
+     * Test case 1: A segment through the area crosses it even though both endpoints are
+     * outside, and a segment that passes beside it does not.
+     */
+    @Test
+    void testSegmentThroughAndBeside() {
+        assertTrue(wall.crossesSegment(0, 0, 10, 0));
+        assertTrue(wall.crossesSegment(3, -3, 6, 3));
+        assertFalse(wall.crossesSegment(0, 0, 0, 10));
+        assertFalse(wall.crossesSegment(0, 2, 10, 2));
+        assertFalse(wall.crossesSegment(3.9, -3, 3.9, 3));
+    }
+
+    /**
+     * Test case 2: A segment with an endpoint inside counts, as does one that only
+     * touches an edge or a corner.
+     */
+    @Test
+    void testEndpointInsideAndTouching() {
+        assertTrue(wall.crossesSegment(4.5, 0, 10, 0));
+        assertTrue(wall.crossesSegment(0, 1, 10, 1));
+        assertTrue(wall.crossesSegment(3, 2, 5, 0));
+        assertTrue(wall.crossesSegment(3, -2, 4, -1));
+    }
+
+    /**
+     * Test case 3: Without areas, or when the segment's box misses every area, nothing
+     * is crossed.
+     */
+    @Test
+    void testNoAreasAndDistantSegments() {
+        RestrictedAreaGeometry none = RestrictedAreaGeometry.compile(List.of());
+
+        assertFalse(none.crossesSegment(0, 0, 10, 0));
+        assertFalse(wall.crossesSegment(20, -5, 30, 5));
+    }
+}
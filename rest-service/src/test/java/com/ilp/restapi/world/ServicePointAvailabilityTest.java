@@ -0,0 +1,110 @@
+package com.ilp.restapi.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.client.ReferenceSnapshot;
+import com.ilp.restapi.client.ServicePointSchedule;
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.RequirementsDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+class ServicePointAvailabilityTest {
+
+    private static final Double[] CAPACITIES = {null, -0.0, 0.0, 2.0, 4.0, 7.5, Double.NaN};
+
+    /**
+     * Test case 1: At whole minutes the bitmaps agree with checking every drone's
+     * capability and windows, including window bounds, -0.0 and NaN capacities.
+     */
+    @Test
+    void testBitmapsMatchPerDroneCheck() {
+        // Arrange
+        Random random = new Random(11);
+        List<DroneDTO> fleet = new ArrayList<>();
+        int[] ids = new int[40];
+        int[][] windows = new int[ids.length][];
+        for (int i = 0; i < ids.length; i++) {
+            CapabilityDTO cap = null;
+            if (random.nextInt(8) > 0) {
+                cap = new CapabilityDTO(random.nextBoolean(), random.nextBoolean());
+                cap.setCapacity(CAPACITIES[1 + random.nextInt(CAPACITIES.length - 1)]);
+            }
+            fleet.add(new DroneDTO("Drone " + i, i, cap));
+            ids[i] = i;
+            // Seconds-precision bounds, so some windows start or end inside a minute
+            int start = random.nextInt(WeeklyWindows.SECONDS_PER_WEEK - 7200);
+            windows[i] = new int[] {start, start + random.nextInt(7200)};
+        }
+        WorldModel world = world(fleet, ids, windows);
+        ServicePointAvailability availability = world.servicePointGroups().get(0).getAvailability();
+
+        // Act / Assert
+        for (int t = 0; t < 5000; t++) {
+            RequirementsDTO req = null;
+            if (random.nextInt(10) > 0) {
+                req = new RequirementsDTO();
+                req.setCapacity(CAPACITIES[random.nextInt(CAPACITIES.length)]);
+                req.setCooling(random.nextBoolean());
+                req.setHeating(random.nextInt(3) == 0);
+            }
+            // Minutes near window bounds are the interesting ones
+            int second = windows[random.nextInt(ids.length)][random.nextInt(2)] + 60 * (random.nextInt(5) - 2);
+            second = Math.floorMod(second / 60 * 60, WeeklyWindows.SECONDS_PER_WEEK);
+            DayOfWeek day = DayOfWeek.of(1 + second / WeeklyWindows.SECONDS_PER_DAY);
+            LocalTime time = LocalTime.ofSecondOfDay(second % WeeklyWindows.SECONDS_PER_DAY);
+
+            assertEquals(anyCapable(world, req, day, time), availability.anyCapable(req, day, time),
+                    day + " " + time);
+        }
+    }
+
+    /**
+     * Test case 2: A group with a capability lacking a capacity gets no bitmaps.
+     */
+    @Test
+    void testMissingCapacityIsNotIndexed() {
+        CapabilityDTO cap = new CapabilityDTO(true, true);
+        cap.setCapacity(null);
+        int[] window = {0, 3600};
+
+        WorldModel world = world(List.of(new DroneDTO("A", 1, cap)), new int[] {1}, new int[][] {window});
+
+        assertNull(world.servicePointGroups().get(0).getAvailability());
+    }
+
+    // Same rule as the per-drone dispatch check
+    private static boolean anyCapable(WorldModel world, RequirementsDTO req, DayOfWeek day, LocalTime time) {
+        for (int i = 0; i < world.droneCount(); i++) {
+            CapabilityDTO cap = world.drone(i).getCapability();
+            if (cap == null) continue;
+            if (req != null) {
+                if (req.getCapacity() != null && cap.getCapacity() < req.getCapacity()) continue;
+                if (Boolean.TRUE.equals(req.getCooling()) && !cap.isCooling()) continue;
+                if (Boolean.TRUE.equals(req.getHeating()) && !cap.isHeating()) continue;
+            }
+            if (WeeklyWindows.contains(world.windows(i), day, time)) return true;
+        }
+        return false;
+    }
+
+    private static WorldModel world(List<DroneDTO> fleet, int[] ids, int[][] windows) {
+        ServicePointDTO sp = new ServicePointDTO();
+        sp.setId(1);
+        sp.setLocation(new LngLatDTO(0.0, 0.0));
+        return WorldModel.build(new ReferenceSnapshot(1L, Instant.now(), fleet,
+                List.of(new ServicePointSchedule(1, ids, windows)), List.of(sp), List.of()));
+    }
+}
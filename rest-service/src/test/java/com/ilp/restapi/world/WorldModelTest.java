@@ -0,0 +1,209 @@
+package com.ilp.restapi.world;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ilp.restapi.client.ReferenceSnapshot;
+import com.ilp.restapi.client.ServicePointSchedule;
+import com.ilp.restapi.client.WeeklyWindows;
+import com.ilp.restapi.data.CapabilityDTO;
+import com.ilp.restapi.data.DroneDTO;
+import com.ilp.restapi.data.LngLatDTO;
+import com.ilp.restapi.data.RestrictedAreaDTO;
+import com.ilp.restapi.data.ServicePointDTO;
+
+class WorldModelTest {
+
+    private WorldModel world;
+
+    @BeforeEach
+    void setUp() {
+        // Two drones at service point 1, drone 2 is also listed at service point 2
+        ServicePointSchedule sp1 = schedule(1, new int[] {1, 2}, DayOfWeek.MONDAY, DayOfWeek.TUESDAY);
+        ServicePointSchedule sp2 = schedule(2, new int[] {2, 99}, DayOfWeek.FRIDAY, DayOfWeek.FRIDAY);
+
+        ReferenceSnapshot snapshot = new ReferenceSnapshot(7L, Instant.now(),
+                List.of(new DroneDTO("Drone 1", 1, new CapabilityDTO(true, false)),
+                        new DroneDTO("Drone 2", 2, new CapabilityDTO(false, true))),
+                List.of(sp1, sp2),
+                List.of(servicePoint(1, 0.0, 0.0), servicePoint(2, 1.0, 1.0)),
+                List.of(square(10.0, 10.0, 1.0)));
+
+        world = WorldModel.build(snapshot);
+    }
+
+    /**
+     * Test case 1: Drones are looked up by id through the primitive index.
+     */
+    @Test
+    void testDroneLookupById() {
+        assertEquals(7L, world.version());
+        assertEquals(2, world.droneCount());
+        assertEquals("Drone 2", world.droneById(2).getName());
+        assertNull(world.droneById(99), "Unknown ids should return null.");
+    }
+
+    /**
+     * Test case 2: Windows of a drone listed at several service points are merged,
+     * and its base is the last service point it appears at.
+     */
+    @Test
+    void testWindowsAreMergedAndLastBaseWins() {
+        int index = world.droneIndexOf(2);
+
+        assertEquals(4, world.windows(index).length, "Windows from both service points should be merged.");
+        assertTrue(WeeklyWindows.contains(world.windows(index), DayOfWeek.FRIDAY, LocalTime.NOON));
+        assertSame(world.servicePointLocation(2), world.base(index));
+    }
+
+    /**
+     * Test case 3: Drones per service point skip ids that are not in the fleet.
+     */
+    @Test
+    void testDronesAtServicePoint() {
+        assertArrayEquals(new int[] {0, 1}, world.dronesAtServicePoint(1));
+        assertArrayEquals(new int[] {1}, world.dronesAtServicePoint(2));
+        assertEquals(0, world.dronesAtServicePoint(3).length);
+    }
+
+    /**
+     * Test case 4: Restricted areas are compiled and tested by point containment.
+     */
+    @Test
+    void testRestrictedAreaContainment() {
+        RestrictedAreaGeometry areas = world.restrictedAreas();
+
+        assertEquals(1, areas.areaCount());
+        assertTrue(areas.contains(10.5, 10.5), "Centre of the square should be restricted.");
+        assertFalse(areas.contains(12.0, 10.5), "Point to the right of the square should be free.");
+        assertFalse(areas.contains(10.5, 9.0), "Point below the square should be free.");
+    }
+
+    /**
+     * Test case 5: Overlapping windows are merged into sorted intervals, with the same
+     * inclusive end bound as before; windows a second apart stay separate.
+     */
+    @Test
+    void testWindowsAreNormalizedIntervals() {
+        // Arrange
+        int monday9 = WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(9, 0));
+        int monday12 = WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(12, 0));
+        int monday17 = WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(17, 0));
+        int monday20 = WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(20, 0));
+
+        // Act
+        int[] windows = WeeklyWindows.normalize(new int[] {
+                monday20 + 1, monday20 + 60, monday12, monday20, monday9, monday17});
+
+        // Assert
+        assertArrayEquals(new int[] {monday9, monday20, monday20 + 1, monday20 + 60}, windows);
+        assertTrue(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(18, 30)));
+        assertTrue(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(20, 0)));
+        assertFalse(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(20, 0, 0, 500)),
+                "Between two windows a second apart.");
+        assertFalse(WeeklyWindows.contains(windows, DayOfWeek.MONDAY, LocalTime.of(8, 59, 59)));
+        assertFalse(WeeklyWindows.contains(windows, DayOfWeek.SUNDAY, LocalTime.of(12, 0)));
+    }
+
+    /**
+     * Test case 6: Drones with equal capabilities, base and windows share a class; a
+     * different window or capability value starts a new one.
+     */
+    @Test
+    void testEquivalenceClasses() {
+        // Arrange: drones 1-3 are identical, drone 4 has -0.0 capacity, drone 5 works Tuesday
+        ServicePointSchedule sp = new ServicePointSchedule(1, new int[] {1, 2, 3, 4, 5}, new int[][] {
+                monday(), monday(), monday(), monday(), {
+                        WeeklyWindows.secondOfWeek(DayOfWeek.TUESDAY, LocalTime.of(9, 0)),
+                        WeeklyWindows.secondOfWeek(DayOfWeek.TUESDAY, LocalTime.of(17, 0))}});
+        ReferenceSnapshot snapshot = new ReferenceSnapshot(1L, Instant.now(),
+                List.of(drone(1, 0.0), drone(2, 0.0), drone(3, 0.0), drone(4, -0.0), drone(5, 0.0)),
+                List.of(sp), List.of(servicePoint(1, 0.0, 0.0)), List.of());
+
+        // Act
+        WorldModel classes = WorldModel.build(snapshot);
+
+        // Assert
+        assertEquals(3, classes.classCount());
+        assertEquals(classes.droneClass(0), classes.droneClass(2));
+        assertEquals(0, classes.classRepresentative(classes.droneClass(1)));
+        assertArrayEquals(new int[] {0, 3, 4}, classes.servicePointGroups().get(0).getClassDroneIndices());
+    }
+
+    /**
+     * Test case 7: A newer snapshot with the same restricted areas keeps the previous
+     * geometry and areas version; one with different areas starts a new areas version.
+     */
+    @Test
+    void testAreasVersionOnlyMovesWhenAreasChange() {
+        // Arrange
+        ReferenceSnapshot sameAreas = new ReferenceSnapshot(8L, Instant.now(), List.of(drone(1, 4.0)),
+                List.of(), List.of(), List.of(square(10.0, 10.0, 1.0)));
+        ReferenceSnapshot movedArea = new ReferenceSnapshot(9L, Instant.now(), List.of(drone(1, 4.0)),
+                List.of(), List.of(), List.of(square(10.0, 10.0, 2.0)));
+
+        // Act
+        WorldModel second = WorldModel.build(sameAreas, world);
+        WorldModel third = WorldModel.build(movedArea, second);
+
+        // Assert
+        assertEquals(7L, world.areasVersion());
+        assertEquals(8L, second.version());
+        assertEquals(7L, second.areasVersion());
+        assertSame(world.restrictedAreas(), second.restrictedAreas());
+        assertEquals(9L, third.areasVersion());
+        assertTrue(third.restrictedAreas().contains(new LngLatDTO(11.5, 11.5)));
+    }
+
+    private static int[] monday() {
+        return new int[] {
+                WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(9, 0)),
+                WeeklyWindows.secondOfWeek(DayOfWeek.MONDAY, LocalTime.of(17, 0))};
+    }
+
+    private static DroneDTO drone(int id, double capacity) {
+        CapabilityDTO cap = new CapabilityDTO(true, false);
+        cap.setCapacity(capacity);
+        return new DroneDTO("Drone " + id, id, cap);
+    }
+
+    private static ServicePointSchedule schedule(int servicePointId, int[] droneIds, DayOfWeek... days) {
+        int[][] windows = new int[droneIds.length][];
+        for (int i = 0; i < droneIds.length; i++) {
+            windows[i] = new int[] {
+                    WeeklyWindows.secondOfWeek(days[i], LocalTime.of(9, 0)),
+                    WeeklyWindows.secondOfWeek(days[i], LocalTime.of(17, 0))};
+        }
+        return new ServicePointSchedule(servicePointId, droneIds, windows);
+    }
+
+    private static ServicePointDTO servicePoint(int id, double lng, double lat) {
+        ServicePointDTO sp = new ServicePointDTO();
+        sp.setId(id);
+        sp.setLocation(new LngLatDTO(lng, lat));
+        return sp;
+    }
+
+    private static RestrictedAreaDTO square(double lng, double lat, double size) {
+        RestrictedAreaDTO area = new RestrictedAreaDTO();
+        area.setVertices(List.of(
+                new LngLatDTO(lng, lat),
+                new LngLatDTO(lng + size, lat),
+                new LngLatDTO(lng + size, lat + size),
+                new LngLatDTO(lng, lat + size),
+                new LngLatDTO(lng, lat)));
+        return area;
+    }
+}